@@ -0,0 +1,119 @@
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load test of {@code POST /api/v1/packaging/optimize}, run with the JDK alone:
+ * <pre>
+ * java scripts/LoadTest.java &lt;base-url&gt; &lt;token&gt; &lt;clients&gt; &lt;seconds&gt; [slow-uploads]
+ * </pre>
+ * Every client sends a small two-order request, waits for the answer and sends the next one. Slow
+ * uploads open connections that send their body one byte every 100 ms, holding a request thread of
+ * the server for the whole run, and send the rest of it at once when the run ends. Prints one line:
+ * requests per second, latency percentiles and the number of failed requests.
+ * {@code scripts/load-test.sh} runs it against both thread modes.
+ */
+public class LoadTest {
+
+  private static final String BODY = """
+      {"orders": [
+        {"order_id": 1, "products": [
+          {"product_id": "PS5", "dimension": {"height": 40, "width": 10, "length": 25}},
+          {"product_id": "Volante", "dimension": {"height": 40, "width": 30, "length": 30}}]},
+        {"order_id": 2, "products": [
+          {"product_id": "Joystick", "dimension": {"height": 15, "width": 20, "length": 10}},
+          {"product_id": "Fifa 24", "dimension": {"height": 10, "width": 30, "length": 10}}]}
+      ]}
+      """;
+
+  public static void main(String[] args) throws Exception {
+    URI uri = URI.create(args[0] + "/api/v1/packaging/optimize");
+    String token = args[1];
+    int clients = Integer.parseInt(args[2]);
+    long endNanos = System.nanoTime() + Duration.ofSeconds(Long.parseLong(args[3])).toNanos();
+    int slowUploads = args.length > 4 ? Integer.parseInt(args[4]) : 0;
+
+    for (int i = 0; i < slowUploads; i++) {
+      Thread.ofVirtual().start(() -> slowUpload(uri, token, endNanos));
+    }
+    HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    HttpRequest request = HttpRequest.newBuilder(uri)
+        .header("Authorization", "Bearer " + token)
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(BODY))
+        .build();
+    List<long[]> latencies = new ArrayList<>();
+    AtomicLong failures = new AtomicLong();
+    List<Thread> threads = new ArrayList<>();
+    long start = System.nanoTime();
+    for (int i = 0; i < clients; i++) {
+      long[] samples = new long[1 << 20];
+      latencies.add(samples);
+      threads.add(Thread.ofPlatform().start(() -> {
+        int count = 0;
+        while (System.nanoTime() < endNanos && count < samples.length) {
+          long sent = System.nanoTime();
+          try {
+            if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+              failures.incrementAndGet();
+            }
+          } catch (Exception e) {
+            failures.incrementAndGet();
+          }
+          samples[count++] = System.nanoTime() - sent;
+        }
+        samples[samples.length - 1] = count;
+      }));
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    double seconds = (System.nanoTime() - start) / 1e9;
+
+    long[] all = latencies.stream()
+        .flatMapToLong(samples -> Arrays.stream(samples, 0, (int) samples[samples.length - 1]))
+        .sorted()
+        .toArray();
+    System.out.printf("clients=%d slow=%d requests=%d req/s=%.0f p50=%.1fms p99=%.1fms failures=%d%n",
+        clients, slowUploads, all.length, all.length / seconds, percentile(all, 0.50), percentile(all, 0.99),
+        failures.get());
+    System.exit(0);
+  }
+
+  private static double percentile(long[] sorted, double fraction) {
+    return sorted.length == 0 ? 0 : sorted[(int) Math.min(sorted.length - 1, sorted.length * fraction)] / 1e6;
+  }
+
+  private static void slowUpload(URI uri, String token, long endNanos) {
+    byte[] body = BODY.getBytes(StandardCharsets.UTF_8);
+    while (System.nanoTime() < endNanos) {
+      try (Socket socket = new Socket(uri.getHost(), uri.getPort())) {
+        OutputStream out = socket.getOutputStream();
+        out.write(("POST " + uri.getPath() + " HTTP/1.1\r\nHost: " + uri.getHost() + "\r\nAuthorization: Bearer "
+            + token + "\r\nContent-Type: application/json\r\nContent-Length: " + body.length + "\r\n\r\n")
+            .getBytes(StandardCharsets.US_ASCII));
+        int sent = 0;
+        for (; sent < body.length && System.nanoTime() < endNanos; sent++) {
+          out.write(body[sent]);
+          out.flush();
+          Thread.sleep(100);
+        }
+        // finish the body once the run is over, so the server answers instead of waiting for its timeout
+        out.write(body, sent, body.length - sent);
+        out.flush();
+        socket.getInputStream().read();
+      } catch (Exception e) {
+        // the server timed the connection out; open the next one
+      }
+    }
+  }
+}
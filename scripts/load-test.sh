@@ -0,0 +1,32 @@
+#!/usr/bin/env bash
+# Compares platform and virtual request threads under the same load, see "Virtual Threads" in the
+# README. Needs the packaged jar (mvn package -DskipTests) and Java 21 on the PATH.
+# Usage: scripts/load-test.sh [seconds-per-run]
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+SECONDS_PER_RUN=${1:-15}
+PORT=18080
+JAR=$(ls target/packing-test-*.jar | grep -v original | head -n 1)
+
+for virtual in false true; do
+  java --enable-preview -jar "$JAR" --server.port=$PORT --management.server.port=$((PORT + 1)) \
+    --spring.threads.virtual.enabled=$virtual > "target/load-test-$virtual.log" 2>&1 &
+  server=$!
+  trap 'kill $server 2>/dev/null' EXIT
+  for _ in $(seq 60); do
+    curl -s -o /dev/null "localhost:$((PORT + 1))/actuator/health" && break
+    sleep 1
+  done
+  token=$(curl -s -X POST "localhost:$PORT/api/v1/authenticate" -H 'Content-Type: application/json' \
+    -d '{"username":"user","password":"password"}' | sed -E 's/.*:"([^"]+)".*/\1/')
+
+  echo "virtual threads: $virtual"
+  java scripts/LoadTest.java "http://localhost:$PORT" "$token" 4 3 > /dev/null # warm-up
+  java scripts/LoadTest.java "http://localhost:$PORT" "$token" 1 "$SECONDS_PER_RUN"
+  java scripts/LoadTest.java "http://localhost:$PORT" "$token" 50 "$SECONDS_PER_RUN"
+  java scripts/LoadTest.java "http://localhost:$PORT" "$token" 20 "$SECONDS_PER_RUN" 200
+
+  kill $server
+  wait $server 2>/dev/null || true
+done
@@ -0,0 +1,39 @@
+package dev.genro.luan.packing_test.benchmark;
+
+import dev.genro.luan.packing_test.domain.model.Dimension;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DimensionFitBenchmark {
+
+  private static final int SIZE = 1024;
+
+  private final Dimension[] products = new Dimension[SIZE];
+  private final Dimension[] boxes = new Dimension[SIZE];
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    for (int i = 0; i < SIZE; i++) {
+      products[i] = new Dimension(1 + random.nextInt(80), 1 + random.nextInt(80), 1 + random.nextInt(80));
+      boxes[i] = SyntheticOrders.BOX_TYPES.get(i % SyntheticOrders.BOX_TYPES.size()).dimension();
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SIZE)
+  public void canFitInto(Blackhole blackhole) {
+    for (int i = 0; i < SIZE; i++) {
+      blackhole.consume(products[i].canFitInto(boxes[i]));
+    }
+  }
+}
@@ -0,0 +1,52 @@
+package dev.genro.luan.packing_test.benchmark;
+
+import dev.genro.luan.packing_test.domain.model.BoxCatalog;
+import dev.genro.luan.packing_test.domain.model.BoxCatalogHolder;
+import dev.genro.luan.packing_test.domain.service.BestFitDecreasingStrategy;
+import dev.genro.luan.packing_test.domain.service.ExactPackingStrategy;
+import dev.genro.luan.packing_test.domain.service.FirstFitDecreasingStrategy;
+import dev.genro.luan.packing_test.domain.service.PackagingServiceImpl;
+import dev.genro.luan.packing_test.domain.service.PackingMetrics;
+import dev.genro.luan.packing_test.domain.service.PackingResultCache;
+import dev.genro.luan.packing_test.domain.service.WorstFitDecreasingStrategy;
+import dev.genro.luan.packing_test.interfaces.dto.OrdersResponse;
+import dev.genro.luan.packing_test.interfaces.dto.PackageOrderRequest;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PackOrdersBenchmark {
+
+  @Param({SyntheticOrders.SMALL_B2C, SyntheticOrders.MEDIUM_B2C, SyntheticOrders.LARGE_B2B, SyntheticOrders.UNPACKABLE})
+  public String distribution;
+
+  @Param({FirstFitDecreasingStrategy.NAME, BestFitDecreasingStrategy.NAME, ExactPackingStrategy.NAME})
+  public String algorithm;
+
+  private PackagingServiceImpl packagingService;
+  private PackageOrderRequest request;
+
+  @Setup
+  public void setUp() {
+    packagingService = new PackagingServiceImpl(new BoxCatalogHolder(new BoxCatalog(SyntheticOrders.BOX_TYPES)), List.of(
+        new FirstFitDecreasingStrategy(),
+        new BestFitDecreasingStrategy(),
+        new WorstFitDecreasingStrategy(),
+        new ExactPackingStrategy(12, 200_000)), FirstFitDecreasingStrategy.NAME, 0, null, Integer.MAX_VALUE, 1, 0,
+        PackingResultCache.disabled(), PackingMetrics.disabled());
+    PackageOrderRequest orders = SyntheticOrders.generate(distribution, 42);
+    request = new PackageOrderRequest(orders.orders(), algorithm);
+  }
+
+  @Benchmark
+  public OrdersResponse packOrders() {
+    return packagingService.packOrders(request);
+  }
+}
@@ -0,0 +1,112 @@
+package dev.genro.luan.packing_test.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import dev.genro.luan.packing_test.domain.model.BoxCatalog;
+import dev.genro.luan.packing_test.domain.service.PackagingServiceImpl;
+import dev.genro.luan.packing_test.interfaces.dto.OrderRequest;
+import dev.genro.luan.packing_test.interfaces.dto.OrdersResponse;
+import dev.genro.luan.packing_test.interfaces.controller.PackageOrderRequestDeserializer;
+import dev.genro.luan.packing_test.interfaces.dto.PackageOrderRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wire cost of the optimize endpoint per encoding. {@code deserializeOrder} decodes one order per
+ * operation, so its score compares the decode cost per order across formats directly; the encoded
+ * size of the request is printed once per trial. {@code bindAndValidateRequest} and
+ * {@code streamRequest} compare reflective binding followed by Bean Validation, the path the
+ * endpoint used before, with the {@link PackageOrderRequestDeserializer} it uses now.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+  @Param({SyntheticOrders.SMALL_B2C, SyntheticOrders.LARGE_B2B, SyntheticOrders.UNPACKABLE})
+  public String distribution;
+
+  @Param({"json", "smile", "cbor"})
+  public String format;
+
+  private ObjectReader requestReader;
+  private ObjectReader streamingRequestReader;
+  private Validator validator;
+  private ObjectReader orderReader;
+  private ObjectWriter responseWriter;
+  private byte[] requestBytes;
+  private byte[][] orderBytes;
+  private int nextOrder;
+  private OrdersResponse response;
+
+  @Setup
+  public void setUp() throws IOException {
+    ObjectMapper objectMapper = switch (format) {
+      case "json" -> new ObjectMapper();
+      case "smile" -> new SmileMapper();
+      case "cbor" -> new CBORMapper();
+      default -> throw new IllegalArgumentException("Unknown format: %s".formatted(format));
+    };
+    requestReader = objectMapper.readerFor(PackageOrderRequest.class);
+    streamingRequestReader = objectMapper.copy()
+        .registerModule(new SimpleModule().addDeserializer(PackageOrderRequest.class,
+            new PackageOrderRequestDeserializer()))
+        .readerFor(PackageOrderRequest.class);
+    validator = Validation.buildDefaultValidatorFactory().getValidator();
+    orderReader = objectMapper.readerFor(OrderRequest.class);
+    responseWriter = objectMapper.writerFor(OrdersResponse.class);
+
+    PackageOrderRequest request = SyntheticOrders.generate(distribution, 42);
+    requestBytes = objectMapper.writeValueAsBytes(request);
+    List<OrderRequest> orders = request.orders();
+    orderBytes = new byte[orders.size()][];
+    for (int i = 0; i < orders.size(); i++) {
+      orderBytes[i] = objectMapper.writeValueAsBytes(orders.get(i));
+    }
+    response = new PackagingServiceImpl(new BoxCatalog(SyntheticOrders.BOX_TYPES).boxTypes()).packOrders(request);
+    System.out.printf("%n%s/%s: request %d bytes, %d bytes per order%n",
+        distribution, format, requestBytes.length, requestBytes.length / orders.size());
+  }
+
+  @Benchmark
+  public PackageOrderRequest deserializeRequest() throws IOException {
+    return requestReader.readValue(requestBytes);
+  }
+
+  @Benchmark
+  public Set<ConstraintViolation<PackageOrderRequest>> bindAndValidateRequest() throws IOException {
+    return validator.validate(requestReader.<PackageOrderRequest>readValue(requestBytes));
+  }
+
+  @Benchmark
+  public PackageOrderRequest streamRequest() throws IOException {
+    return streamingRequestReader.readValue(requestBytes);
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public OrderRequest deserializeOrder() throws IOException {
+    byte[] order = orderBytes[nextOrder];
+    nextOrder = nextOrder + 1 == orderBytes.length ? 0 : nextOrder + 1;
+    return orderReader.readValue(order);
+  }
+
+  @Benchmark
+  public byte[] serializeResponse() throws IOException {
+    return responseWriter.writeValueAsBytes(response);
+  }
+}
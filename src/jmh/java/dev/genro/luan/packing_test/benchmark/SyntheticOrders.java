@@ -0,0 +1,67 @@
+package dev.genro.luan.packing_test.benchmark;
+
+import dev.genro.luan.packing_test.domain.model.BoxType;
+import dev.genro.luan.packing_test.domain.model.Dimension;
+import dev.genro.luan.packing_test.interfaces.dto.DimensionRequest;
+import dev.genro.luan.packing_test.interfaces.dto.OrderRequest;
+import dev.genro.luan.packing_test.interfaces.dto.PackageOrderRequest;
+import dev.genro.luan.packing_test.interfaces.dto.ProductRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic order batches shaped like the traffic the service sees in production.
+ */
+final class SyntheticOrders {
+
+  static final String SMALL_B2C = "small-b2c";
+  static final String MEDIUM_B2C = "medium-b2c";
+  static final String LARGE_B2B = "large-b2b";
+  static final String UNPACKABLE = "unpackable";
+
+  static final List<BoxType> BOX_TYPES = List.of(
+      new BoxType("Box 1", new Dimension(30, 40, 80)),
+      new BoxType("Box 2", new Dimension(80, 50, 40)),
+      new BoxType("Box 3", new Dimension(50, 80, 60)));
+
+  private SyntheticOrders() {
+  }
+
+  /**
+   * @param distribution {@value #SMALL_B2C}: 1,000 orders of 1 to 4 small products;
+   *                     {@value #MEDIUM_B2C}: 200 orders of 6 to 12 mixed products;
+   *                     {@value #LARGE_B2B}: 20 orders of 500 mixed products;
+   *                     {@value #UNPACKABLE}: 200 orders of 5 products larger than every box.
+   */
+  static PackageOrderRequest generate(String distribution, long seed) {
+    Random random = new Random(seed);
+    return switch (distribution) {
+      case SMALL_B2C -> batch(random, 1_000, 1, 4, 5, 40);
+      case MEDIUM_B2C -> batch(random, 200, 6, 12, 10, 45);
+      case LARGE_B2B -> batch(random, 20, 500, 500, 5, 45);
+      case UNPACKABLE -> batch(random, 200, 5, 5, 90, 150);
+      default -> throw new IllegalArgumentException("Unknown distribution: %s".formatted(distribution));
+    };
+  }
+
+  private static PackageOrderRequest batch(Random random, int orders, int minProducts, int maxProducts,
+                                           int minSide, int maxSide) {
+    List<OrderRequest> orderRequests = new ArrayList<>(orders);
+    for (int orderId = 1; orderId <= orders; orderId++) {
+      int productCount = minProducts + random.nextInt(maxProducts - minProducts + 1);
+      List<ProductRequest> products = new ArrayList<>(productCount);
+      for (int p = 0; p < productCount; p++) {
+        products.add(new ProductRequest("SKU-%d-%d".formatted(orderId, p), new DimensionRequest(
+            side(random, minSide, maxSide), side(random, minSide, maxSide), side(random, minSide, maxSide))));
+      }
+      orderRequests.add(new OrderRequest(orderId, products));
+    }
+    return new PackageOrderRequest(orderRequests);
+  }
+
+  private static int side(Random random, int min, int max) {
+    return min + random.nextInt(max - min + 1);
+  }
+}
@@ -0,0 +1,87 @@
+package dev.genro.luan.packing_test.domain.model;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a fit-cache miss of {@link BoxCatalog}: the {@link BoxTypeIndex} query against the
+ * linear scan over every box type that it replaced. Lives next to the index, which is package
+ * private, rather than with the other benchmarks.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BoxTypeIndexBenchmark {
+
+  private static final int SIZE = 1024;
+
+  @Param({"3", "100", "500", "2000"})
+  public int boxTypeCount;
+
+  /**
+   * {@code mixed}: item sides from 1 to 80; {@code large}: item sides from 60 to 140, which only
+   * the largest box types hold.
+   */
+  @Param({"mixed", "large"})
+  public String items;
+
+  private List<BoxType> boxTypes;
+  private BoxTypeIndex index;
+  private final CanonicalDimension[] itemSides = new CanonicalDimension[SIZE];
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    List<BoxType> generated = new ArrayList<>(boxTypeCount);
+    for (int i = 0; i < boxTypeCount; i++) {
+      generated.add(new BoxType("Box " + i,
+          new Dimension(10 + random.nextInt(141), 10 + random.nextInt(141), 10 + random.nextInt(141))));
+    }
+    boxTypes = new BoxCatalog(generated).boxTypes();
+    index = new BoxTypeIndex(boxTypes);
+    int minSide = items.equals("large") ? 60 : 1;
+    int maxSide = items.equals("large") ? 140 : 80;
+    for (int i = 0; i < SIZE; i++) {
+      itemSides[i] = new Dimension(side(random, minSide, maxSide), side(random, minSide, maxSide),
+          side(random, minSide, maxSide)).canonical();
+    }
+  }
+
+  private static int side(Random random, int min, int max) {
+    return min + random.nextInt(max - min + 1);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SIZE)
+  public void index(Blackhole blackhole) {
+    for (CanonicalDimension item : itemSides) {
+      blackhole.consume(index.compatibility(item));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SIZE)
+  public void linearScan(Blackhole blackhole) {
+    for (CanonicalDimension item : itemSides) {
+      long[] mask = new long[Math.max(1, (boxTypes.size() + Long.SIZE - 1) / Long.SIZE)];
+      int smallestFittingIndex = -1;
+      for (int boxIndex = 0; boxIndex < boxTypes.size(); boxIndex++) {
+        if (item.fitsInto(boxTypes.get(boxIndex).canonical())) {
+          mask[boxIndex >>> 6] |= 1L << boxIndex;
+          if (smallestFittingIndex < 0) {
+            smallestFittingIndex = boxIndex;
+          }
+        }
+      }
+      blackhole.consume(new BoxCompatibility(mask, smallestFittingIndex));
+    }
+  }
+}
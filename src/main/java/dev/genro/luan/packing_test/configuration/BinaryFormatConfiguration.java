@@ -0,0 +1,33 @@
+package dev.genro.luan.packing_test.configuration;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Binary encodings of the JSON API for batch integrations. Both formats keep the JSON data model,
+ * so the same request and response records are used, but field names are written once per
+ * document (Smile) or as compact tokens (CBOR) and numbers are written in binary.
+ * The mappers are built from the application's Jackson builder, so they share its settings and
+ * its registered deserializers. {@code builder.smile()} and {@code builder.cbor()} would not: they
+ * are static factories that return a new, unconfigured builder.
+ */
+@Configuration
+public class BinaryFormatConfiguration {
+
+  public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+  @Bean
+  public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+    return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+  }
+
+  @Bean
+  public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+    return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+  }
+}
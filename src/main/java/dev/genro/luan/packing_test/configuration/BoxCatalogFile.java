@@ -0,0 +1,76 @@
+package dev.genro.luan.packing_test.configuration;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.genro.luan.packing_test.domain.model.BoxType;
+import dev.genro.luan.packing_test.domain.model.Dimension;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The box configuration as a JSON array of {@code {"name", "height", "width", "length"}} entries,
+ * with optional {@code "max_weight"} (grams, no limit when absent) and {@code "cost"}, read from
+ * any Spring resource location ({@code classpath:}, {@code file:}, ...).
+ */
+public class BoxCatalogFile {
+
+  private static final TypeReference<List<BoxDefinition>> DEFINITIONS = new TypeReference<>() {
+  };
+
+  private final Resource resource;
+  private final ObjectMapper objectMapper;
+
+  public BoxCatalogFile(Resource resource, ObjectMapper objectMapper) {
+    this.resource = resource;
+    this.objectMapper = objectMapper;
+  }
+
+  public Resource resource() {
+    return resource;
+  }
+
+  /**
+   * @throws IllegalStateException if the file cannot be read or does not describe a valid catalog.
+   */
+  public List<BoxType> read() {
+    List<BoxDefinition> definitions;
+    try (InputStream input = resource.getInputStream()) {
+      definitions = objectMapper.readValue(input, DEFINITIONS);
+    } catch (IOException e) {
+      throw new IllegalStateException("Unable to read box catalog from %s".formatted(resource.getDescription()), e);
+    }
+    if (definitions == null || definitions.isEmpty()) {
+      throw new IllegalStateException("Box catalog %s has no box types".formatted(resource.getDescription()));
+    }
+    Set<String> names = new HashSet<>();
+    for (BoxDefinition definition : definitions) {
+      if (definition.name() == null || definition.name().isBlank() || !names.add(definition.name())) {
+        throw new IllegalStateException("Box catalog %s has a missing or duplicated name: %s"
+            .formatted(resource.getDescription(), definition.name()));
+      }
+      if (definition.height() <= 0 || definition.width() <= 0 || definition.length() <= 0) {
+        throw new IllegalStateException("Box '%s' in %s must have positive dimensions"
+            .formatted(definition.name(), resource.getDescription()));
+      }
+      if (definition.maxWeight() < 0 || definition.cost() < 0) {
+        throw new IllegalStateException("Box '%s' in %s must not have a negative weight limit or cost"
+            .formatted(definition.name(), resource.getDescription()));
+      }
+    }
+    return definitions.stream()
+        .map(definition -> new BoxType(definition.name(),
+            new Dimension(definition.height(), definition.width(), definition.length()),
+            definition.maxWeight(), definition.cost()))
+        .toList();
+  }
+
+  private record BoxDefinition(String name, int height, int width, int length,
+                               @JsonProperty("max_weight") int maxWeight, double cost) {
+  }
+}
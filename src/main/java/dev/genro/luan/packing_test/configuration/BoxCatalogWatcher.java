@@ -0,0 +1,93 @@
+package dev.genro.luan.packing_test.configuration;
+
+import dev.genro.luan.packing_test.domain.model.BoxCatalog;
+import dev.genro.luan.packing_test.domain.model.BoxCatalogHolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls the box catalog file and publishes a new catalog whenever its modification time or size
+ * changes. A file that fails to parse or validate is logged and ignored, so the previous catalog
+ * stays in use. Only resources backed by a file can change, so classpath resources inside the
+ * application archive are not watched.
+ */
+public class BoxCatalogWatcher implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(BoxCatalogWatcher.class);
+
+  private final BoxCatalogFile catalogFile;
+  private final BoxCatalogHolder holder;
+  private final ScheduledExecutorService scheduler;
+  private final File file;
+  private long lastModified;
+  private long lastLength;
+
+  public BoxCatalogWatcher(BoxCatalogFile catalogFile, BoxCatalogHolder holder, long intervalMs) {
+    this.catalogFile = catalogFile;
+    this.holder = holder;
+    this.file = watchedFile(catalogFile);
+    if (file == null || intervalMs <= 0) {
+      this.scheduler = null;
+      return;
+    }
+    this.lastModified = file.lastModified();
+    this.lastLength = file.length();
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "box-catalog-watcher");
+      thread.setDaemon(true);
+      return thread;
+    });
+    scheduler.scheduleWithFixedDelay(this::checkForChanges, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    log.info("Watching box catalog {} every {} ms.", file, intervalMs);
+  }
+
+  /**
+   * Reloads the catalog if the file changed since the last check.
+   *
+   * @return true if a new catalog was published.
+   */
+  boolean checkForChanges() {
+    if (file == null) {
+      return false;
+    }
+    long modified = file.lastModified();
+    long length = file.length();
+    if (modified == lastModified && length == lastLength) {
+      return false;
+    }
+    lastModified = modified;
+    lastLength = length;
+    try {
+      BoxCatalog catalog = holder.publish(catalogFile.read());
+      log.info("Published box catalog version {} with {} box types from {}.", catalog.version(), catalog.size(), file);
+      return true;
+    } catch (RuntimeException e) {
+      log.error("Ignoring invalid box catalog {}; keeping version {}.", file, holder.current().version(), e);
+      return false;
+    }
+  }
+
+  private static File watchedFile(BoxCatalogFile catalogFile) {
+    if (!catalogFile.resource().isFile()) {
+      return null;
+    }
+    try {
+      return catalogFile.resource().getFile();
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  @Override
+  public void close() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+    }
+  }
+}
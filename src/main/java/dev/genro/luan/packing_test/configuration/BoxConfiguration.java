@@ -1,25 +1,31 @@
 package dev.genro.luan.packing_test.configuration;
 
-import dev.genro.luan.packing_test.domain.model.BoxType;
-import dev.genro.luan.packing_test.domain.model.Dimension;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.genro.luan.packing_test.domain.model.BoxCatalog;
+import dev.genro.luan.packing_test.domain.model.BoxCatalogHolder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-
-import java.util.Comparator;
-import java.util.List;
+import org.springframework.core.io.Resource;
 
 @Configuration
 public class BoxConfiguration {
 
   @Bean
-  public List<BoxType> availableBoxTypes() {
-    List<BoxType> boxes = List.of(
-        new BoxType("Box 1", new Dimension(30, 40, 80)),
-        new BoxType("Box 2", new Dimension(80, 50, 40)),
-        new BoxType("Box 3", new Dimension(50, 80, 60))
-    );
-    return boxes.stream()
-        .sorted(Comparator.comparingLong(BoxType::volume))
-        .toList();
+  public BoxCatalogFile boxCatalogFile(@Value("${packing.boxes.location:classpath:boxes.json}") Resource location,
+                                       ObjectMapper objectMapper) {
+    return new BoxCatalogFile(location, objectMapper);
+  }
+
+  @Bean
+  public BoxCatalogHolder boxCatalogHolder(BoxCatalogFile boxCatalogFile,
+                                           @Value("${packing.fit-cache.max-size:10000}") long fitCacheMaxSize) {
+    return new BoxCatalogHolder(new BoxCatalog(boxCatalogFile.read(), fitCacheMaxSize), fitCacheMaxSize);
+  }
+
+  @Bean(destroyMethod = "close")
+  public BoxCatalogWatcher boxCatalogWatcher(BoxCatalogFile boxCatalogFile, BoxCatalogHolder boxCatalogHolder,
+                                             @Value("${packing.boxes.reload-interval-ms:5000}") long reloadIntervalMs) {
+    return new BoxCatalogWatcher(boxCatalogFile, boxCatalogHolder, reloadIntervalMs);
   }
 }
@@ -0,0 +1,61 @@
+package dev.genro.luan.packing_test.configuration;
+
+import dev.genro.luan.packing_test.domain.service.PackingJobStore;
+import dev.genro.luan.packing_test.domain.service.PackingResultCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Exposes the state of the packing caches, pools and job store as meters, next to the request
+ * meters recorded by {@link dev.genro.luan.packing_test.domain.service.PackingMetrics}.
+ */
+@Configuration
+public class MetricsConfiguration {
+
+  @Bean
+  public MeterBinder packingResultCacheMetrics(PackingResultCache resultCache) {
+    return registry -> {
+      FunctionCounter.builder("packing.result-cache.requests", resultCache, cache -> cache.stats().hitCount())
+          .description("Result cache lookups")
+          .tag("result", "hit")
+          .register(registry);
+      FunctionCounter.builder("packing.result-cache.requests", resultCache, cache -> cache.stats().missCount())
+          .description("Result cache lookups")
+          .tag("result", "miss")
+          .register(registry);
+      FunctionCounter.builder("packing.result-cache.evictions", resultCache, cache -> cache.stats().evictionCount())
+          .description("Layouts evicted from the result cache")
+          .register(registry);
+      Gauge.builder("packing.result-cache.size", resultCache, PackingResultCache::size)
+          .description("Layouts held by the result cache")
+          .register(registry);
+    };
+  }
+
+  @Bean
+  public MeterBinder packingJobStoreMetrics(PackingJobStore jobStore) {
+    return registry -> Gauge.builder("packing.jobs.stored", jobStore, PackingJobStore::size)
+        .description("Asynchronous packing jobs held in memory, finished or not")
+        .register(registry);
+  }
+
+  /**
+   * Pool size, active threads and queue depth of both packing pools, tagged by pool name.
+   */
+  @Bean
+  public MeterBinder packingExecutorMetrics(@Qualifier("packingExecutor") ExecutorService packingExecutor,
+                                            @Qualifier("packingJobExecutor") ExecutorService packingJobExecutor) {
+    return registry -> {
+      new ExecutorServiceMetrics(packingExecutor, "packingExecutor", List.of()).bindTo(registry);
+      new ExecutorServiceMetrics(packingJobExecutor, "packingJobExecutor", List.of()).bindTo(registry);
+    };
+  }
+}
@@ -0,0 +1,55 @@
+package dev.genro.luan.packing_test.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class PackingExecutorConfiguration {
+
+  /**
+   * Bounded pool used to pack the orders of a single request concurrently.
+   * When the queue is full the submitting thread packs the chunk itself, which throttles
+   * producers instead of rejecting work. It does so after shutdown too: unlike
+   * {@link ThreadPoolExecutor.CallerRunsPolicy}, which then discards the chunk, every submitted chunk
+   * runs, so a request being packed while the application stops still completes.
+   */
+  @Bean(destroyMethod = "shutdown")
+  public ExecutorService packingExecutor(@Value("${packing.parallel.pool-size:0}") int poolSize,
+                                         @Value("${packing.parallel.queue-capacity:1024}") int queueCapacity) {
+    int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+    AtomicInteger threadCounter = new AtomicInteger();
+    ThreadFactory threadFactory = runnable -> {
+      Thread thread = new Thread(runnable, "packing-%d".formatted(threadCounter.incrementAndGet()));
+      thread.setDaemon(true);
+      return thread;
+    };
+    return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity), threadFactory, (chunk, executor) -> chunk.run());
+  }
+
+  /**
+   * Bounded pool that runs asynchronous packing jobs, one job per thread. Unlike
+   * {@link #packingExecutor}, a full queue rejects the job, which the API reports as 429 so that
+   * clients back off instead of piling up work.
+   */
+  @Bean(destroyMethod = "shutdown")
+  public ExecutorService packingJobExecutor(@Value("${packing.jobs.pool-size:2}") int poolSize,
+                                            @Value("${packing.jobs.queue-capacity:16}") int queueCapacity) {
+    AtomicInteger threadCounter = new AtomicInteger();
+    ThreadFactory threadFactory = runnable -> {
+      Thread thread = new Thread(runnable, "packing-job-%d".formatted(threadCounter.incrementAndGet()));
+      thread.setDaemon(true);
+      return thread;
+    };
+    return new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+  }
+}
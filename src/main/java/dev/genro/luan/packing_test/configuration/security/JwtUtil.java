@@ -1,33 +1,54 @@
 package dev.genro.luan.packing_test.configuration.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
-import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Map;
 import java.util.function.Function;
 
+/**
+ * Issues and verifies the API tokens.
+ * <p>
+ * Verified claims are cached by the SHA-256 of the token, so a client reusing one token only pays
+ * for the signature check once. Each entry is evicted when its token expires, which means a cache
+ * hit is always a valid, unexpired token; tokens that fail verification are never cached.
+ */
 @Component
 public class JwtUtil {
 
-  @Value("${jwt.secret}")
-  private String secret;
+  private final long expirationMs;
+  private final SecretKey key;
+  private final JwtParser parser;
+  private final Cache<String, Claims> verifiedTokens;
 
-  @Value("${jwt.expiration.ms}")
-  private long expirationMs;
-
-  private SecretKey key;
-
-  @PostConstruct
-  public void init() {
+  public JwtUtil(@Value("${jwt.secret}") String secret,
+                 @Value("${jwt.expiration.ms}") long expirationMs,
+                 @Value("${jwt.cache.max-size:10000}") long cacheMaxSize) {
+    this.expirationMs = expirationMs;
     this.key = Keys.hmacShaKeyFor(secret.getBytes());
+    this.parser = Jwts.parser()
+        .verifyWith(this.key)
+        .build();
+    this.verifiedTokens = Caffeine.newBuilder()
+        .maximumSize(cacheMaxSize)
+        .expireAfter(Expiry.creating((String tokenHash, Claims claims) -> remainingLifetime(claims)))
+        .build();
   }
 
   public String extractUsername(String token) {
@@ -39,26 +60,50 @@ public class JwtUtil {
   }
 
   public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-    final Claims claims = extractAllClaims(token);
+    final Claims claims = verifiedClaims(token);
     return claimsResolver.apply(claims);
   }
 
-  private Claims extractAllClaims(String token) {
-    return Jwts.parser()
-        .verifyWith(this.key)
-        .build()
-        .parseSignedClaims(token)
-        .getPayload();
+  /**
+   * Verifies the token, or returns its cached claims when it was already verified.
+   * <p>
+   * The token is verified outside the cache rather than in a loading {@code get}, which would run
+   * the signature check under a map lock: concurrent first requests with the same token would block
+   * on that monitor and pin their virtual threads. A race only verifies the token twice.
+   *
+   * @throws io.jsonwebtoken.JwtException if the token is malformed, has a bad signature or is expired.
+   * @throws IllegalArgumentException     if the token is empty.
+   */
+  public Claims verifiedClaims(String token) {
+    String tokenHash = hash(token);
+    Claims claims = verifiedTokens.getIfPresent(tokenHash);
+    if (claims == null) {
+      claims = parser.parseSignedClaims(token).getPayload();
+      verifiedTokens.put(tokenHash, claims);
+    }
+    return claims;
+  }
+
+  private Duration remainingLifetime(Claims claims) {
+    long expiresAt = claims.getExpiration() != null ?
+        claims.getExpiration().getTime() :
+        System.currentTimeMillis() + expirationMs;
+    return Duration.ofMillis(Math.max(0, expiresAt - System.currentTimeMillis()));
   }
 
-  private Boolean isTokenExpired(String token) {
+  private static String hash(String token) {
     try {
-      return extractExpiration(token).before(new Date());
-    } catch (Exception e) {
-      return true;
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
     }
   }
 
+  private Boolean isTokenExpired(Claims claims) {
+    return claims.getExpiration() != null && claims.getExpiration().before(new Date());
+  }
+
   public String generateToken(UserDetails userDetails) {
     Map<String, Object> claims = new HashMap<>();
     return createToken(claims, userDetails.getUsername());
@@ -76,10 +121,17 @@ public class JwtUtil {
 
   public Boolean validateToken(String token, UserDetails userDetails) {
     try {
-      final String username = extractUsername(token);
-      return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+      return validateToken(verifiedClaims(token), userDetails);
     } catch (Exception e) {
       return false;
     }
   }
-}
\ No newline at end of file
+
+  /**
+   * Checks claims already obtained from {@link #verifiedClaims(String)} against the user, without
+   * parsing the token again.
+   */
+  public Boolean validateToken(Claims claims, UserDetails userDetails) {
+    return claims.getSubject().equals(userDetails.getUsername()) && !isTokenExpired(claims);
+  }
+}
@@ -3,6 +3,7 @@ package dev.genro.luan.packing_test.configuration.security;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.genro.luan.packing_test.interfaces.dto.ApiErrorResponse;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
@@ -23,10 +24,19 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @EnableWebSecurity
 public class SecurityConfig {
 
+  private static final String PROMETHEUS_PATH = "/actuator/prometheus";
+
   private final JwtRequestFilter jwtRequestFilter;
+  private final int managementPort;
 
-  public SecurityConfig(@Lazy JwtRequestFilter jwtRequestFilter) {
+  /**
+   * @param managementPort port of the Actuator endpoints, -1 when they share the API port. The
+   *                       Prometheus endpoint is only open without a token on a separate port.
+   */
+  public SecurityConfig(@Lazy JwtRequestFilter jwtRequestFilter,
+                        @Value("${management.server.port:-1}") int managementPort) {
     this.jwtRequestFilter = jwtRequestFilter;
+    this.managementPort = managementPort;
   }
 
   @Bean
@@ -66,6 +76,9 @@ public class SecurityConfig {
                 "/swagger-resources/**",
                 "/webjars/**"
             ).permitAll()
+            .requestMatchers("/actuator/health").permitAll()
+            .requestMatchers(request -> managementPort > 0 && request.getLocalPort() == managementPort
+                && PROMETHEUS_PATH.equals(request.getRequestURI())).permitAll()
             .requestMatchers(HttpMethod.POST, "/api/v1/packaging/optimize").authenticated()
             .anyRequest().authenticated()
         )
@@ -8,20 +8,27 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Map;
 
+/**
+ * In-memory user store. Passwords are hashed once at startup, so looking a user up costs a map
+ * access instead of a BCrypt round. Callers receive a copy because Spring Security erases the
+ * credentials of the authenticated principal.
+ */
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
 
-  private final PasswordEncoder passwordEncoder;
+  private final Map<String, UserDetails> users;
 
   public UserDetailsServiceImpl(PasswordEncoder passwordEncoder) {
-    this.passwordEncoder = passwordEncoder;
+    this.users = Map.of("user", new User("user", passwordEncoder.encode("password"), new ArrayList<>()));
   }
 
   @Override
   public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-    if ("user".equals(username)) {
-      return new User("user", passwordEncoder.encode("password"), new ArrayList<>());
+    UserDetails user = users.get(username);
+    if (user != null) {
+      return User.withUserDetails(user).build();
     } else {
       throw new UsernameNotFoundException("User not found with username: %s".formatted(username));
     }
@@ -0,0 +1,124 @@
+package dev.genro.luan.packing_test.domain.model;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The box types available for packing, ordered from the smallest to the largest volume.
+ * Box types are addressed by their position in this order.
+ * <p>
+ * Which box types fit a product only depends on its canonical dimension, so the answer is cached
+ * per catalog in a size-bounded cache. Cache misses are answered by a {@link BoxTypeIndex} over the
+ * box sides, which only visits the box types near the boundary of the fitting region. A catalog is
+ * immutable; a new box configuration means a new catalog, with the next {@link #version()}, and
+ * therefore an empty cache.
+ */
+public final class BoxCatalog {
+
+  public static final int DEFAULT_COMPATIBILITY_CACHE_SIZE = 10_000;
+
+  private final List<BoxType> boxTypes;
+  private final long version;
+  private final boolean weightLimited;
+  private final BoxTypeIndex boxTypeIndex;
+  private final Map<String, Integer> indexesByName;
+  private final Cache<CanonicalDimension, BoxCompatibility> compatibilityCache;
+
+  public BoxCatalog(List<BoxType> boxTypes) {
+    this(boxTypes, DEFAULT_COMPATIBILITY_CACHE_SIZE);
+  }
+
+  public BoxCatalog(List<BoxType> boxTypes, long compatibilityCacheSize) {
+    this(boxTypes, compatibilityCacheSize, 0);
+  }
+
+  public BoxCatalog(List<BoxType> boxTypes, long compatibilityCacheSize, long version) {
+    this.version = version;
+    this.boxTypes = boxTypes.stream()
+        .sorted(Comparator.comparingLong(BoxType::volume))
+        .toList();
+    this.weightLimited = this.boxTypes.stream().anyMatch(boxType -> boxType.maxWeight() > 0);
+    this.boxTypeIndex = new BoxTypeIndex(this.boxTypes);
+    this.indexesByName = new HashMap<>();
+    for (int index = 0; index < this.boxTypes.size(); index++) {
+      indexesByName.putIfAbsent(this.boxTypes.get(index).name(), index);
+    }
+    this.compatibilityCache = Caffeine.newBuilder()
+        .maximumSize(compatibilityCacheSize)
+        .build();
+  }
+
+  public List<BoxType> boxTypes() {
+    return boxTypes;
+  }
+
+  /**
+   * @return the number of box configurations published before this one.
+   */
+  public long version() {
+    return version;
+  }
+
+  public int size() {
+    return boxTypes.size();
+  }
+
+  public BoxType get(int index) {
+    return boxTypes.get(index);
+  }
+
+  /**
+   * @return the position of the box type with the given name, or -1 if the catalog has none.
+   */
+  public int indexOf(String name) {
+    return indexesByName.getOrDefault(name, -1);
+  }
+
+  /**
+   * @return the box types that can hold an item whose sides, in ascending order, are given.
+   */
+  public BoxCompatibility compatibility(int smallest, int middle, int largest) {
+    CanonicalDimension item = new CanonicalDimension(smallest, middle, largest);
+    BoxCompatibility compatibility = compatibilityCache.getIfPresent(item);
+    if (compatibility == null) {
+      // computed outside the cache: a loading get runs the lookup under a map lock, which would pin
+      // virtual threads racing on the same size
+      compatibility = boxTypeIndex.compatibility(item);
+      compatibilityCache.put(item, compatibility);
+    }
+    return compatibility;
+  }
+
+  /**
+   * @return true if some box type has a weight limit, in which case product weights matter.
+   */
+  public boolean weightLimited() {
+    return weightLimited;
+  }
+
+  /**
+   * @return the position of the smallest box type that fits the product dimensionally and can carry
+   * its weight, or -1 if none can.
+   */
+  public int smallestFittingIndex(BoxCompatibility compatibility, long weight) {
+    int index = compatibility.smallestFittingIndex();
+    if (!weightLimited || index < 0) {
+      return index;
+    }
+    long[] mask = compatibility.mask();
+    for (int word = index >>> 6; word < mask.length; word++) {
+      for (long fitting = mask[word]; fitting != 0; fitting &= fitting - 1) {
+        int candidate = word * Long.SIZE + Long.numberOfTrailingZeros(fitting);
+        if (weight <= boxTypes.get(candidate).weightCapacity()) {
+          return candidate;
+        }
+      }
+    }
+    return -1;
+  }
+}
@@ -0,0 +1,37 @@
+package dev.genro.luan.packing_test.domain.model;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The box catalog currently in use. Publishing a new box configuration swaps in a new immutable
+ * {@link BoxCatalog} atomically: a request reads {@link #current()} once and keeps that snapshot
+ * until it completes, while requests that start afterwards see the new one. Readers take no lock.
+ */
+public final class BoxCatalogHolder {
+
+  private final AtomicReference<BoxCatalog> current;
+  private final long compatibilityCacheSize;
+
+  public BoxCatalogHolder(BoxCatalog catalog) {
+    this(catalog, BoxCatalog.DEFAULT_COMPATIBILITY_CACHE_SIZE);
+  }
+
+  public BoxCatalogHolder(BoxCatalog catalog, long compatibilityCacheSize) {
+    this.current = new AtomicReference<>(catalog);
+    this.compatibilityCacheSize = compatibilityCacheSize;
+  }
+
+  public BoxCatalog current() {
+    return current.get();
+  }
+
+  /**
+   * Replaces the catalog with one built from the given box types, with the next version.
+   *
+   * @return the published catalog.
+   */
+  public BoxCatalog publish(List<BoxType> boxTypes) {
+    return current.updateAndGet(previous -> new BoxCatalog(boxTypes, compatibilityCacheSize, previous.version() + 1));
+  }
+}
@@ -0,0 +1,16 @@
+package dev.genro.luan.packing_test.domain.model;
+
+/**
+ * Which box types of a {@link BoxCatalog} can hold a product on its own, as a bitmask over the
+ * catalog positions, together with the smallest of them ({@code -1} when none fits).
+ */
+public record BoxCompatibility(long[] mask, int smallestFittingIndex) {
+
+  public boolean fits(int boxTypeIndex) {
+    return (mask[boxTypeIndex >>> 6] & (1L << boxTypeIndex)) != 0;
+  }
+
+  public boolean fitsAny() {
+    return smallestFittingIndex >= 0;
+  }
+}
@@ -1,7 +1,27 @@
 package dev.genro.luan.packing_test.domain.model;
 
-public record BoxType(String name, Dimension dimension) {
+/**
+ * @param maxWeight weight the box can carry, in grams, or 0 when the box has no weight limit.
+ * @param cost      shipping cost of one box of this type, including its dimensional weight charge.
+ */
+public record BoxType(String name, Dimension dimension, CanonicalDimension canonical, int maxWeight, double cost) {
+
+  public BoxType(String name, Dimension dimension) {
+    this(name, dimension, 0, 0);
+  }
+
+  public BoxType(String name, Dimension dimension, int maxWeight, double cost) {
+    this(name, dimension, dimension.canonical(), maxWeight, cost);
+  }
+
   public long volume() {
     return dimension.volume();
   }
+
+  /**
+   * @return the weight the box can carry, with {@link Long#MAX_VALUE} standing for no limit.
+   */
+  public long weightCapacity() {
+    return maxWeight > 0 ? maxWeight : Long.MAX_VALUE;
+  }
 }
@@ -0,0 +1,127 @@
+package dev.genro.luan.packing_test.domain.model;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * k-d tree over the canonical sides of the box types of a {@link BoxCatalog}. A box type can hold
+ * an item when each of its sorted sides is at least the matching sorted side of the item, so the
+ * box types that fit an item are the points of the tree that dominate it on all three axes.
+ * <p>
+ * Every subtree keeps the per-axis minimum and maximum of its points: a subtree whose maximum does
+ * not dominate the item is skipped, and one whose minimum already does is taken whole without
+ * looking at its points, so a lookup only visits the boundary of the region that fits instead of
+ * every box type. Box types are identified by their catalog position, which orders them by volume,
+ * so the smallest fitting box is the lowest position found.
+ * <p>
+ * Nodes are stored in implicit form: the points are permuted so that the root of the subtree over
+ * {@code [from, to)} sits at its middle position, with the two children over the halves on either
+ * side of it.
+ */
+final class BoxTypeIndex {
+
+  private static final int AXES = 3;
+
+  private final int boxCount;
+  private final int[] boxIndexes;
+  private final int[] sides;
+  private final int[] lowerBounds;
+  private final int[] upperBounds;
+
+  BoxTypeIndex(List<BoxType> boxTypes) {
+    this.boxCount = boxTypes.size();
+    this.boxIndexes = new int[boxCount];
+    this.sides = new int[boxCount * AXES];
+    this.lowerBounds = new int[boxCount * AXES];
+    this.upperBounds = new int[boxCount * AXES];
+    int[][] boxSides = new int[boxCount][];
+    for (int index = 0; index < boxCount; index++) {
+      CanonicalDimension canonical = boxTypes.get(index).canonical();
+      boxSides[index] = new int[]{canonical.smallest(), canonical.middle(), canonical.largest()};
+      boxIndexes[index] = index;
+    }
+    build(boxSides, new long[boxCount], 0, boxCount, 0);
+  }
+
+  /**
+   * @return the box types that can hold an item with the given canonical sides.
+   */
+  BoxCompatibility compatibility(CanonicalDimension item) {
+    long[] mask = new long[Math.max(1, (boxCount + Long.SIZE - 1) / Long.SIZE)];
+    collect(0, boxCount, item.smallest(), item.middle(), item.largest(), mask);
+    int smallestFittingIndex = -1;
+    for (int word = 0; word < mask.length && smallestFittingIndex < 0; word++) {
+      if (mask[word] != 0) {
+        smallestFittingIndex = word * Long.SIZE + Long.numberOfTrailingZeros(mask[word]);
+      }
+    }
+    return new BoxCompatibility(mask, smallestFittingIndex);
+  }
+
+  /**
+   * Splits {@code [from, to)} at the median of the axis, which cycles with the depth, and fills the
+   * node and the bounds of its subtree. Sorting uses the side in the high bits and the box index in
+   * the low bits of a long key, so it stays primitive and ties are broken by position.
+   */
+  private void build(int[][] boxSides, long[] keys, int from, int to, int axis) {
+    if (from >= to) {
+      return;
+    }
+    for (int i = from; i < to; i++) {
+      keys[i] = (long) boxSides[boxIndexes[i]][axis] << Integer.SIZE | boxIndexes[i];
+    }
+    Arrays.sort(keys, from, to);
+    for (int i = from; i < to; i++) {
+      boxIndexes[i] = (int) keys[i];
+    }
+    int node = (from + to) >>> 1;
+    int nextAxis = (axis + 1) % AXES;
+    build(boxSides, keys, from, node, nextAxis);
+    build(boxSides, keys, node + 1, to, nextAxis);
+
+    int[] nodeSides = boxSides[boxIndexes[node]];
+    for (int a = 0; a < AXES; a++) {
+      sides[node * AXES + a] = nodeSides[a];
+      lowerBounds[node * AXES + a] = nodeSides[a];
+      upperBounds[node * AXES + a] = nodeSides[a];
+    }
+    widenBounds(node, from, node);
+    widenBounds(node, node + 1, to);
+  }
+
+  private void widenBounds(int node, int childFrom, int childTo) {
+    if (childFrom >= childTo) {
+      return;
+    }
+    int child = (childFrom + childTo) >>> 1;
+    for (int a = 0; a < AXES; a++) {
+      lowerBounds[node * AXES + a] = Math.min(lowerBounds[node * AXES + a], lowerBounds[child * AXES + a]);
+      upperBounds[node * AXES + a] = Math.max(upperBounds[node * AXES + a], upperBounds[child * AXES + a]);
+    }
+  }
+
+  private void collect(int from, int to, int smallest, int middle, int largest, long[] mask) {
+    if (from >= to) {
+      return;
+    }
+    int node = (from + to) >>> 1;
+    if (!dominates(upperBounds, node, smallest, middle, largest)) {
+      return;
+    }
+    if (dominates(lowerBounds, node, smallest, middle, largest)) {
+      for (int i = from; i < to; i++) {
+        mask[boxIndexes[i] >>> 6] |= 1L << boxIndexes[i];
+      }
+      return;
+    }
+    if (dominates(sides, node, smallest, middle, largest)) {
+      mask[boxIndexes[node] >>> 6] |= 1L << boxIndexes[node];
+    }
+    collect(from, node, smallest, middle, largest, mask);
+    collect(node + 1, to, smallest, middle, largest, mask);
+  }
+
+  private static boolean dominates(int[] points, int node, int smallest, int middle, int largest) {
+    return points[node * AXES] >= smallest && points[node * AXES + 1] >= middle && points[node * AXES + 2] >= largest;
+  }
+}
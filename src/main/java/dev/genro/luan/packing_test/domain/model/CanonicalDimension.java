@@ -0,0 +1,17 @@
+package dev.genro.luan.packing_test.domain.model;
+
+/**
+ * The sides of a {@link Dimension} sorted in ascending order. Two items with the same canonical
+ * form are identical up to rotation.
+ */
+public record CanonicalDimension(int smallest, int middle, int largest) {
+
+  /**
+   * For axis-aligned boxes, some rotation of this item fits into the target exactly when each
+   * sorted side is no larger than the matching sorted side of the target, so the six orientations
+   * collapse into three comparisons.
+   */
+  public boolean fitsInto(CanonicalDimension target) {
+    return smallest <= target.smallest && middle <= target.middle && largest <= target.largest;
+  }
+}
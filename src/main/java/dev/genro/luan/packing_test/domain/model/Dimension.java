@@ -1,6 +1,20 @@
 package dev.genro.luan.packing_test.domain.model;
 
-public record Dimension(int height, int width, int length) {
+/**
+ * @param canonical the sides sorted in ascending order, computed once when the dimension is created
+ *                  so that fit checks only compare them; a value passed in is replaced.
+ */
+public record Dimension(int height, int width, int length, CanonicalDimension canonical) {
+
+  public Dimension {
+    int smallest = Math.min(height, Math.min(width, length));
+    int largest = Math.max(height, Math.max(width, length));
+    canonical = new CanonicalDimension(smallest, height + width + length - smallest - largest, largest);
+  }
+
+  public Dimension(int height, int width, int length) {
+    this(height, width, length, null);
+  }
 
   public long volume() {
     return (long) height * width * length;
@@ -12,26 +26,9 @@ public record Dimension(int height, int width, int length) {
    *
    * @param targetDimension The dimensions of the box to fit into.
    * @return true if any orientation of this product fits into the box, false otherwise.
+   * @see CanonicalDimension#fitsInto(CanonicalDimension)
    */
   public boolean canFitInto(Dimension targetDimension) {
-    int pL = this.length;
-    int pW = this.width;
-    int pH = this.height;
-
-    int bL = targetDimension.length();
-    int bW = targetDimension.width();
-    int bH = targetDimension.height();
-
-    return checkOrientation(pL, pW, pH, bL, bW, bH) ||
-        checkOrientation(pL, pH, pW, bL, bW, bH) ||
-        checkOrientation(pW, pL, pH, bL, bW, bH) ||
-        checkOrientation(pW, pH, pL, bL, bW, bH) ||
-        checkOrientation(pH, pL, pW, bL, bW, bH) ||
-        checkOrientation(pH, pW, pL, bL, bW, bH);
-  }
-
-  private boolean checkOrientation(int currentProductLength, int currentProductWidth, int currentProductHeight,
-                                   int boxLength, int boxWidth, int boxHeight) {
-    return (currentProductLength <= boxLength && currentProductWidth <= boxWidth && currentProductHeight <= boxHeight);
+    return canonical.fitsInto(targetDimension.canonical);
   }
 }
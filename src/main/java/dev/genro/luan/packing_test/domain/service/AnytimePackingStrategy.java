@@ -0,0 +1,376 @@
+package dev.genro.luan.packing_test.domain.service;
+
+import dev.genro.luan.packing_test.domain.model.BoxCatalog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts from the first-fit decreasing layout and improves it with local search until a deadline.
+ * The emptiest boxes are, one at a time, emptied by relocating their products into the other boxes
+ * or by swapping them for smaller products of another box, which may grow to a larger box type to
+ * take them. A box that cannot be emptied is left as it was, so the result never has more boxes
+ * than first-fit, and every box ends up in the smallest type that holds its products.
+ * <p>
+ * The search stops when no box can be emptied or at the deadline: the request's
+ * {@code time_budget_ms}, shared by all its orders, or {@code packing.anytime.time-budget-ms} per
+ * order when the request has none. The outcome is reported through
+ * {@link PackingWorkspace#recordSearch(int, boolean)}.
+ */
+@Component
+public class AnytimePackingStrategy implements PackingStrategy {
+
+  public static final String NAME = "anytime";
+  private static final int EMPTIED = 0;
+  private static final int STUCK = 1;
+  private static final int TIMED_OUT = 2;
+  private final PackingStrategy initial = new FirstFitDecreasingStrategy();
+  private final long timeBudgetNanos;
+
+  public AnytimePackingStrategy(@Value("${packing.anytime.time-budget-ms:20}") long timeBudgetMs) {
+    this.timeBudgetNanos = TimeUnit.MILLISECONDS.toNanos(timeBudgetMs);
+  }
+
+  @Override
+  public String name() {
+    return NAME;
+  }
+
+  @Override
+  public void pack(OrderColumns order, BoxCatalog catalog, PackingWorkspace workspace) {
+    long deadline = workspace.hasDeadline() ? workspace.deadline() : System.nanoTime() + timeBudgetNanos;
+    initial.pack(order, catalog, workspace);
+    int initialBoxCount = workspace.boxCount();
+    // the box type masks of the search are a single long, so wider catalogs keep the first-fit layout
+    if (initialBoxCount < 2 || catalog.size() > Long.SIZE) {
+      workspace.recordSearch(0, true);
+      return;
+    }
+    LocalSearch search = new LocalSearch(order, catalog, workspace);
+    boolean completed = search.run(deadline);
+    if (search.binCount < initialBoxCount) {
+      workspace.clear();
+      search.writeTo(order, workspace);
+    }
+    workspace.recordSearch(initialBoxCount - search.binCount, completed);
+  }
+
+  private static final class LocalSearch {
+    private final long[] typeVolumes;
+    private final long[] typeWeightCapacities;
+
+    private final int[] itemProducts;
+    private final long[] itemVolumes;
+    private final long[] itemWeights;
+    private final long[] itemMasks;
+    private final int[] itemBins;
+    private final int[] unpackable;
+
+    private int[][] binItems;
+    private int[] binSizes;
+    private long[] binLoads;
+    private long[] binWeights;
+    private long[] binMasks;
+    private int[] binTypes;
+    private int binCount;
+    /**
+     * Boxes in the order they are tried, emptiest first: the fill of each box in the upper bits and
+     * its index in the lower 32, so a primitive sort orders them and keeps boxes of equal fill by index.
+     */
+    private final long[] emptiestFirst;
+
+    /**
+     * Moves done while trying to empty the current box, as (item, previous bin) pairs, so they
+     * can be undone when the box cannot be emptied.
+     */
+    private int[] undoLog = new int[16];
+    private int undoSize;
+
+    private LocalSearch(OrderColumns order, BoxCatalog catalog, PackingWorkspace workspace) {
+      int typeCount = catalog.size();
+      this.typeVolumes = new long[typeCount];
+      this.typeWeightCapacities = new long[typeCount];
+      for (int t = 0; t < typeCount; t++) {
+        typeVolumes[t] = catalog.get(t).volume();
+        typeWeightCapacities[t] = catalog.get(t).weightCapacity();
+      }
+
+      int boxCount = workspace.boxCount();
+      int itemCount = 0;
+      for (int box = 0; box < boxCount; box++) {
+        itemCount += workspace.productCount(box);
+      }
+      this.itemProducts = new int[itemCount];
+      this.itemVolumes = new long[itemCount];
+      this.itemWeights = new long[itemCount];
+      this.itemMasks = new long[itemCount];
+      this.itemBins = new int[itemCount];
+      this.binItems = new int[boxCount][];
+      this.binSizes = new int[boxCount];
+      this.binLoads = new long[boxCount];
+      this.binWeights = new long[boxCount];
+      this.binMasks = new long[boxCount];
+      this.binTypes = new int[boxCount];
+      int item = 0;
+      for (int box = 0; box < boxCount; box++) {
+        binItems[box] = new int[Math.max(4, workspace.productCount(box))];
+        binMasks[box] = -1L;
+        for (int position = 0; position < workspace.productCount(box); position++) {
+          int productIndex = workspace.productAt(box, position);
+          itemProducts[item] = productIndex;
+          itemVolumes[item] = order.volume(productIndex);
+          itemWeights[item] = order.weight(productIndex);
+          itemMasks[item] = order.compatibility(productIndex, catalog).mask()[0];
+          add(box, item);
+          item++;
+        }
+      }
+      this.binCount = boxCount;
+      this.emptiestFirst = new long[boxCount];
+
+      this.unpackable = new int[workspace.unpackableCount()];
+      for (int position = 0; position < unpackable.length; position++) {
+        unpackable[position] = workspace.unpackableAt(position);
+      }
+    }
+
+    /**
+     * @return true if the search ran out of boxes it could empty before the deadline.
+     */
+    private boolean run(long deadline) {
+      while (true) {
+        for (int bin = 0; bin < binCount; bin++) {
+          long fill = (long) ((double) binLoads[bin] / typeVolumes[binTypes[bin]] * (1 << 30));
+          emptiestFirst[bin] = fill << 32 | bin;
+        }
+        Arrays.sort(emptiestFirst, 0, binCount);
+        boolean emptied = false;
+        for (int position = 0; position < binCount; position++) {
+          int outcome = tryToEmpty((int) emptiestFirst[position], deadline);
+          if (outcome == TIMED_OUT) {
+            return false;
+          }
+          if (outcome == EMPTIED) {
+            emptied = true;
+            break;
+          }
+        }
+        if (!emptied) {
+          return true;
+        }
+      }
+    }
+
+    private int tryToEmpty(int bin, long deadline) {
+      undoSize = 0;
+      while (binSizes[bin] > 0) {
+        if (System.nanoTime() - deadline >= 0) {
+          undo();
+          return TIMED_OUT;
+        }
+        if (!relocateOne(bin) && !swapOne(bin)) {
+          undo();
+          return STUCK;
+        }
+      }
+      removeBin(bin);
+      return EMPTIED;
+    }
+
+    /**
+     * Moves the largest product of the box that fits elsewhere into the box it fills the most.
+     */
+    private boolean relocateOne(int source) {
+      int bestItem = -1;
+      int bestTarget = -1;
+      long bestSlack = Long.MAX_VALUE;
+      for (int position = 0; position < binSizes[source]; position++) {
+        int item = binItems[source][position];
+        if (bestItem >= 0 && itemVolumes[item] < itemVolumes[bestItem]) {
+          continue;
+        }
+        for (int target = 0; target < binCount; target++) {
+          if (target == source) {
+            continue;
+          }
+          long load = binLoads[target] + itemVolumes[item];
+          int type = smallestType(binMasks[target] & itemMasks[item], load, binWeights[target] + itemWeights[item]);
+          if (type < 0) {
+            continue;
+          }
+          long slack = typeVolumes[type] - load;
+          if (bestItem < 0 || itemVolumes[item] > itemVolumes[bestItem] || slack < bestSlack) {
+            bestItem = item;
+            bestTarget = target;
+            bestSlack = slack;
+          }
+        }
+      }
+      if (bestItem < 0) {
+        return false;
+      }
+      move(bestItem, bestTarget);
+      return true;
+    }
+
+    /**
+     * Swaps a product of the box for a smaller one of another box, choosing the swap that frees the
+     * most volume, or for one of the same volume that is lighter when no swap frees any. Each swap
+     * lowers the load of the box, or keeps it and lowers its weight, so emptying it terminates.
+     */
+    private boolean swapOne(int source) {
+      int bestOut = -1;
+      int bestIn = -1;
+      long bestGain = 0;
+      for (int sourcePosition = 0; sourcePosition < binSizes[source]; sourcePosition++) {
+        int out = binItems[source][sourcePosition];
+        long sourceMask = maskWithout(source, sourcePosition);
+        for (int target = 0; target < binCount; target++) {
+          if (target == source) {
+            continue;
+          }
+          for (int targetPosition = 0; targetPosition < binSizes[target]; targetPosition++) {
+            int in = binItems[target][targetPosition];
+            long gain = itemVolumes[out] - itemVolumes[in];
+            if (gain < bestGain || (gain == 0 && itemWeights[in] >= itemWeights[out]) || (gain == bestGain && bestOut >= 0)) {
+              continue;
+            }
+            long targetLoad = binLoads[target] - itemVolumes[in] + itemVolumes[out];
+            long targetWeight = binWeights[target] - itemWeights[in] + itemWeights[out];
+            if (smallestType(maskWithout(target, targetPosition) & itemMasks[out], targetLoad, targetWeight) < 0) {
+              continue;
+            }
+            long sourceLoad = binLoads[source] - gain;
+            long sourceWeight = binWeights[source] - itemWeights[out] + itemWeights[in];
+            if (smallestType(sourceMask & itemMasks[in], sourceLoad, sourceWeight) < 0) {
+              continue;
+            }
+            bestOut = out;
+            bestIn = in;
+            bestGain = gain;
+          }
+        }
+      }
+      if (bestOut < 0) {
+        return false;
+      }
+      int target = itemBins[bestIn];
+      move(bestIn, source);
+      move(bestOut, target);
+      return true;
+    }
+
+    private void move(int item, int target) {
+      if (undoSize + 2 > undoLog.length) {
+        undoLog = Arrays.copyOf(undoLog, undoLog.length * 2);
+      }
+      undoLog[undoSize++] = item;
+      undoLog[undoSize++] = itemBins[item];
+      remove(itemBins[item], item);
+      add(target, item);
+    }
+
+    private void undo() {
+      while (undoSize > 0) {
+        int previousBin = undoLog[--undoSize];
+        int item = undoLog[--undoSize];
+        remove(itemBins[item], item);
+        add(previousBin, item);
+      }
+    }
+
+    private void add(int bin, int item) {
+      if (binSizes[bin] == binItems[bin].length) {
+        binItems[bin] = Arrays.copyOf(binItems[bin], binSizes[bin] * 2);
+      }
+      binItems[bin][binSizes[bin]++] = item;
+      itemBins[item] = bin;
+      binLoads[bin] += itemVolumes[item];
+      binWeights[bin] += itemWeights[item];
+      binMasks[bin] &= itemMasks[item];
+      binTypes[bin] = smallestType(binMasks[bin], binLoads[bin], binWeights[bin]);
+    }
+
+    private void remove(int bin, int item) {
+      int[] items = binItems[bin];
+      int position = 0;
+      while (items[position] != item) {
+        position++;
+      }
+      binMasks[bin] = maskWithout(bin, position);
+      items[position] = items[--binSizes[bin]];
+      binLoads[bin] -= itemVolumes[item];
+      binWeights[bin] -= itemWeights[item];
+      binTypes[bin] = smallestType(binMasks[bin], binLoads[bin], binWeights[bin]);
+    }
+
+    /**
+     * Drops an emptied box, keeping the others in their order.
+     */
+    private void removeBin(int bin) {
+      int[] emptied = binItems[bin];
+      for (int next = bin + 1; next < binCount; next++) {
+        binItems[next - 1] = binItems[next];
+        binSizes[next - 1] = binSizes[next];
+        binLoads[next - 1] = binLoads[next];
+        binWeights[next - 1] = binWeights[next];
+        binMasks[next - 1] = binMasks[next];
+        binTypes[next - 1] = binTypes[next];
+        for (int position = 0; position < binSizes[next - 1]; position++) {
+          itemBins[binItems[next - 1][position]] = next - 1;
+        }
+      }
+      binCount--;
+      binItems[binCount] = emptied;
+    }
+
+    /**
+     * @return the box types compatible with every product of the bin except the one at the position.
+     */
+    private long maskWithout(int bin, int excludedPosition) {
+      long mask = -1L;
+      for (int position = 0; position < binSizes[bin]; position++) {
+        if (position != excludedPosition) {
+          mask &= itemMasks[binItems[bin][position]];
+        }
+      }
+      return mask;
+    }
+
+    /**
+     * @return the smallest type in the mask with room for the volume and weight, or -1 if none has.
+     */
+    private int smallestType(long mask, long load, long weight) {
+      for (long remaining = mask & typeMask(); remaining != 0; remaining &= remaining - 1) {
+        int type = Long.numberOfTrailingZeros(remaining);
+        if (typeVolumes[type] >= load && typeWeightCapacities[type] >= weight) {
+          return type;
+        }
+      }
+      return -1;
+    }
+
+    private long typeMask() {
+      return typeVolumes.length == Long.SIZE ? -1L : (1L << typeVolumes.length) - 1;
+    }
+
+    private void writeTo(OrderColumns order, PackingWorkspace workspace) {
+      for (int productIndex : unpackable) {
+        workspace.markUnpackable(productIndex);
+      }
+      for (int bin = 0; bin < binCount; bin++) {
+        int[] productIndexes = new int[binSizes[bin]];
+        for (int position = 0; position < productIndexes.length; position++) {
+          productIndexes[position] = itemProducts[binItems[bin][position]];
+        }
+        Arrays.sort(productIndexes);
+        int boxIndex = workspace.openBox(binTypes[bin]);
+        for (int productIndex : productIndexes) {
+          workspace.place(boxIndex, productIndex, order.volume(productIndex), order.weight(productIndex));
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,63 @@
+package dev.genro.luan.packing_test.domain.service;
+
+import dev.genro.luan.packing_test.domain.model.BoxCatalog;
+import dev.genro.luan.packing_test.domain.model.BoxCompatibility;
+import org.springframework.stereotype.Component;
+
+/**
+ * Places each product into the open box that would have the least volume left after taking it,
+ * opening the smallest box type that fits when no open box has room.
+ * <p>
+ * Open boxes are kept in an {@link OpenBoxIndex}, so finding the tightest box costs one ordered
+ * lookup per box type the product fits dimensionally instead of a scan over every open box.
+ */
+@Component
+public class BestFitDecreasingStrategy implements PackingStrategy {
+
+  public static final String NAME = "best-fit-decreasing";
+
+  @Override
+  public String name() {
+    return NAME;
+  }
+
+  @Override
+  public void pack(OrderColumns order, BoxCatalog catalog, PackingWorkspace workspace) {
+    OpenBoxIndex openBoxes = new OpenBoxIndex(catalog.size());
+
+    for (int productIndex = 0; productIndex < order.size(); productIndex++) {
+      long productVolume = order.volume(productIndex);
+      long productWeight = order.weight(productIndex);
+      BoxCompatibility compatibility = order.compatibility(productIndex, catalog);
+
+      OpenBoxIndex.Slot bestSlot = null;
+      int bestType = -1;
+      for (int boxTypeIndex = 0; boxTypeIndex < catalog.size(); boxTypeIndex++) {
+        if (!openBoxes.hasBoxes(boxTypeIndex) || !compatibility.fits(boxTypeIndex)) {
+          continue;
+        }
+        OpenBoxIndex.Slot candidate = openBoxes.tightest(boxTypeIndex, productVolume, productWeight);
+        if (candidate != null && (bestSlot == null || OpenBoxIndex.SLOT_ORDER.compare(candidate, bestSlot) < 0)) {
+          bestSlot = candidate;
+          bestType = boxTypeIndex;
+        }
+      }
+
+      if (bestSlot != null) {
+        openBoxes.remove(bestType, bestSlot);
+        int boxIndex = bestSlot.boxIndex();
+        workspace.place(boxIndex, productIndex, productVolume, productWeight);
+        openBoxes.add(bestType, workspace.remainingVolume(boxIndex), workspace.remainingWeight(boxIndex), boxIndex);
+      } else {
+        int newBoxType = catalog.smallestFittingIndex(compatibility, productWeight);
+        if (newBoxType >= 0) {
+          int boxIndex = workspace.openBox(newBoxType);
+          workspace.place(boxIndex, productIndex, productVolume, productWeight);
+          openBoxes.add(newBoxType, workspace.remainingVolume(boxIndex), workspace.remainingWeight(boxIndex), boxIndex);
+        } else {
+          workspace.markUnpackable(productIndex);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,303 @@
+package dev.genro.luan.packing_test.domain.service;
+
+import dev.genro.luan.packing_test.domain.model.BoxCatalog;
+import dev.genro.luan.packing_test.domain.model.BoxType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Minimizes the total shipping cost of an order, the sum of the {@link BoxType#cost()} of every
+ * opened box, under the volume and weight limits of each box.
+ * <p>
+ * The order is first packed with first-fit decreasing, whose cost becomes the bound to beat. A
+ * branch-and-bound search then assigns products to boxes; each box is charged the cheapest type
+ * that fits all its products, and branches are cut when their cost plus the cheapest way to ship
+ * the volume (and weight) still unassigned cannot beat the best solution. The search stops at
+ * {@code packing.cost.time-budget-ms}, so the result is the cheapest layout found by then and never
+ * worse than the heuristic. Orders above {@code packing.cost.max-items} keep the heuristic result.
+ */
+@Component
+public class CostOptimalPackingStrategy implements PackingStrategy {
+
+  public static final String NAME = "cost-optimal";
+  private static final double EPSILON = 1e-9;
+  private final PackingStrategy heuristic = new FirstFitDecreasingStrategy();
+  private final int maxItems;
+  private final long timeBudgetNanos;
+
+  public CostOptimalPackingStrategy(@Value("${packing.cost.max-items:24}") int maxItems,
+                                    @Value("${packing.cost.time-budget-ms:10}") long timeBudgetMs) {
+    this.maxItems = maxItems;
+    this.timeBudgetNanos = TimeUnit.MILLISECONDS.toNanos(timeBudgetMs);
+  }
+
+  @Override
+  public String name() {
+    return NAME;
+  }
+
+  @Override
+  public void pack(OrderColumns order, BoxCatalog catalog, PackingWorkspace workspace) {
+    long deadline = System.nanoTime() + timeBudgetNanos;
+    heuristic.pack(order, catalog, workspace);
+    if (order.size() > maxItems || catalog.size() > Long.SIZE) {
+      return;
+    }
+    double heuristicCost = 0;
+    for (int boxIndex = 0; boxIndex < workspace.boxCount(); boxIndex++) {
+      heuristicCost += workspace.boxType(boxIndex).cost();
+    }
+    Search search = new Search(order, catalog, heuristicCost, deadline);
+    if (search.solve()) {
+      workspace.clear();
+      search.writeTo(workspace);
+    }
+    if (search.timedOut) {
+      workspace.markBudgetExceeded();
+    }
+  }
+
+  private static final class Search {
+    private final long deadline;
+    private final long[] typeVolumes;
+    private final long[] typeWeightCapacities;
+    private final double[] typeCosts;
+    private final double costPerVolume;
+    private final double costPerWeight;
+
+    private final int[] items;
+    private final long[] itemVolumes;
+    private final long[] itemWeights;
+    private final long[] itemMasks;
+    private final boolean[] sameAsPrevious;
+    private final long[] remainingVolumes;
+    private final long[] remainingWeights;
+    private final int itemCount;
+    private final int[] unpackable;
+
+    private final long[] binMasks;
+    private final long[] binLoads;
+    private final long[] binWeights;
+    private final int[] binTypes;
+    private final int[] assignment;
+    private int binCount;
+    private double cost;
+
+    private final int[] bestAssignment;
+    private final int[] bestBinTypes;
+    private int bestBinCount = -1;
+    private double bestCost;
+    private long nodes;
+    private boolean timedOut;
+
+    private Search(OrderColumns order, BoxCatalog catalog, double heuristicCost, long deadline) {
+      this.deadline = deadline;
+      this.bestCost = heuristicCost;
+      int typeCount = catalog.size();
+      this.typeVolumes = new long[typeCount];
+      this.typeWeightCapacities = new long[typeCount];
+      this.typeCosts = new double[typeCount];
+      double cheapestPerVolume = Double.MAX_VALUE;
+      double cheapestPerWeight = Double.MAX_VALUE;
+      for (int t = 0; t < typeCount; t++) {
+        BoxType boxType = catalog.get(t);
+        typeVolumes[t] = boxType.volume();
+        typeWeightCapacities[t] = boxType.weightCapacity();
+        typeCosts[t] = boxType.cost();
+        cheapestPerVolume = Math.min(cheapestPerVolume, boxType.cost() / boxType.volume());
+        cheapestPerWeight = boxType.maxWeight() > 0 ?
+            Math.min(cheapestPerWeight, boxType.cost() / boxType.maxWeight()) :
+            0;
+      }
+      this.costPerVolume = typeCount > 0 ? cheapestPerVolume : 0;
+      this.costPerWeight = typeCount > 0 ? cheapestPerWeight : 0;
+
+      int[] packable = new int[order.size()];
+      long[] masks = new long[order.size()];
+      int[] notPackable = new int[order.size()];
+      int count = 0;
+      int notPackableCount = 0;
+      for (int productIndex = 0; productIndex < order.size(); productIndex++) {
+        long mask = order.compatibility(productIndex, catalog).mask()[0];
+        for (long remaining = mask; remaining != 0; remaining &= remaining - 1) {
+          int type = Long.numberOfTrailingZeros(remaining);
+          if (order.weight(productIndex) > typeWeightCapacities[type]) {
+            mask &= ~(1L << type);
+          }
+        }
+        if (mask == 0) {
+          notPackable[notPackableCount++] = productIndex;
+        } else {
+          packable[count] = productIndex;
+          masks[count] = mask;
+          count++;
+        }
+      }
+      this.itemCount = count;
+      this.items = packable;
+      this.itemMasks = masks;
+      this.unpackable = Arrays.copyOf(notPackable, notPackableCount);
+      this.itemVolumes = new long[count];
+      this.itemWeights = new long[count];
+      this.sameAsPrevious = new boolean[count];
+      for (int i = 0; i < count; i++) {
+        itemVolumes[i] = order.volume(items[i]);
+        itemWeights[i] = order.weight(items[i]);
+        sameAsPrevious[i] = i > 0 && itemMasks[i] == itemMasks[i - 1] && itemVolumes[i] == itemVolumes[i - 1]
+            && itemWeights[i] == itemWeights[i - 1] && order.sameShape(items[i], items[i - 1]);
+      }
+      this.remainingVolumes = new long[count + 1];
+      this.remainingWeights = new long[count + 1];
+      for (int i = count - 1; i >= 0; i--) {
+        remainingVolumes[i] = remainingVolumes[i + 1] + itemVolumes[i];
+        remainingWeights[i] = remainingWeights[i + 1] + itemWeights[i];
+      }
+      this.binMasks = new long[count];
+      this.binLoads = new long[count];
+      this.binWeights = new long[count];
+      this.binTypes = new int[count];
+      this.assignment = new int[count];
+      this.bestAssignment = new int[count];
+      this.bestBinTypes = new int[count];
+    }
+
+    /**
+     * @return true if a layout cheaper than the heuristic one was found.
+     */
+    private boolean solve() {
+      search(0);
+      return bestBinCount >= 0;
+    }
+
+    private void writeTo(PackingWorkspace workspace) {
+      for (int productIndex : unpackable) {
+        workspace.markUnpackable(productIndex);
+      }
+      for (int bin = 0; bin < bestBinCount; bin++) {
+        int boxIndex = workspace.openBox(bestBinTypes[bin]);
+        for (int i = 0; i < itemCount; i++) {
+          if (bestAssignment[i] == bin) {
+            workspace.place(boxIndex, items[i], itemVolumes[i], itemWeights[i]);
+          }
+        }
+      }
+    }
+
+    private void search(int item) {
+      if ((++nodes & 0xFF) == 0 && System.nanoTime() - deadline >= 0) {
+        timedOut = true;
+      }
+      if (timedOut) {
+        return;
+      }
+      if (item == itemCount) {
+        if (cost < bestCost - EPSILON) {
+          recordSolution();
+        }
+        return;
+      }
+      if (cost + lowerBound(item) >= bestCost - EPSILON) {
+        return;
+      }
+
+      int firstBin = sameAsPrevious[item] ? assignment[item - 1] : 0;
+      for (int bin = firstBin; bin < binCount; bin++) {
+        long mask = binMasks[bin] & itemMasks[item];
+        long load = binLoads[bin] + itemVolumes[item];
+        long weight = binWeights[bin] + itemWeights[item];
+        int type = mask == 0 ? -1 : cheapestType(mask, load, weight);
+        if (type < 0) {
+          continue;
+        }
+        long previousMask = binMasks[bin];
+        int previousType = binTypes[bin];
+        double previousCost = cost;
+        binMasks[bin] = mask;
+        binLoads[bin] = load;
+        binWeights[bin] = weight;
+        binTypes[bin] = type;
+        cost += typeCosts[type] - typeCosts[previousType];
+        assignment[item] = bin;
+        search(item + 1);
+        binMasks[bin] = previousMask;
+        binLoads[bin] = load - itemVolumes[item];
+        binWeights[bin] = weight - itemWeights[item];
+        binTypes[bin] = previousType;
+        cost = previousCost;
+      }
+
+      int type = cheapestType(itemMasks[item], itemVolumes[item], itemWeights[item]);
+      if (type >= 0) {
+        binMasks[binCount] = itemMasks[item];
+        binLoads[binCount] = itemVolumes[item];
+        binWeights[binCount] = itemWeights[item];
+        binTypes[binCount] = type;
+        double previousCost = cost;
+        cost += typeCosts[type];
+        assignment[item] = binCount;
+        binCount++;
+        search(item + 1);
+        binCount--;
+        cost = previousCost;
+      }
+    }
+
+    /**
+     * Cost of shipping whatever volume and weight of the remaining items does not fit in the spare
+     * capacity of the open boxes, at the cheapest rate any box type offers.
+     */
+    private double lowerBound(int item) {
+      long spareVolume = 0;
+      long spareWeight = 0;
+      for (int bin = 0; bin < binCount; bin++) {
+        int largest = Long.SIZE - 1 - Long.numberOfLeadingZeros(binMasks[bin]);
+        spareVolume += typeVolumes[largest] - binLoads[bin];
+        if (costPerWeight > 0) {
+          spareWeight += maxWeightCapacity(binMasks[bin]) - binWeights[bin];
+        }
+      }
+      double volumeBound = Math.max(0, remainingVolumes[item] - spareVolume) * costPerVolume;
+      if (costPerWeight == 0) {
+        return volumeBound;
+      }
+      return Math.max(volumeBound, Math.max(0, remainingWeights[item] - spareWeight) * costPerWeight);
+    }
+
+    /**
+     * Only used when every box type has a weight limit, so the capacities are all finite.
+     */
+    private long maxWeightCapacity(long mask) {
+      long capacity = 0;
+      for (long remaining = mask; remaining != 0; remaining &= remaining - 1) {
+        capacity = Math.max(capacity, typeWeightCapacities[Long.numberOfTrailingZeros(remaining)]);
+      }
+      return capacity;
+    }
+
+    /**
+     * @return the cheapest type in the mask with room for the volume and weight, the smallest on
+     * ties, or -1 if none has room.
+     */
+    private int cheapestType(long mask, long load, long weight) {
+      int cheapest = -1;
+      for (long remaining = mask; remaining != 0; remaining &= remaining - 1) {
+        int type = Long.numberOfTrailingZeros(remaining);
+        if (typeVolumes[type] >= load && typeWeightCapacities[type] >= weight
+            && (cheapest < 0 || typeCosts[type] < typeCosts[cheapest])) {
+          cheapest = type;
+        }
+      }
+      return cheapest;
+    }
+
+    private void recordSolution() {
+      bestCost = cost;
+      bestBinCount = binCount;
+      System.arraycopy(assignment, 0, bestAssignment, 0, itemCount);
+      System.arraycopy(binTypes, 0, bestBinTypes, 0, binCount);
+    }
+  }
+}
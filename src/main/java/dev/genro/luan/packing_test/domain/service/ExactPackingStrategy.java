@@ -0,0 +1,436 @@
+package dev.genro.luan.packing_test.domain.service;
+
+import dev.genro.luan.packing_test.domain.model.BoxCatalog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Searches every assignment of products to boxes and keeps the one with the fewest boxes, then the
+ * least total box volume. A box is feasible when some box type fits each of its products and has
+ * room for their combined volume and weight; the smallest such type is used.
+ * <p>
+ * The first-fit decreasing layout is the starting incumbent, so the search only looks for better
+ * layouts and can stop at any point without returning a worse one. Branches are cut with lower
+ * bounds on the boxes still needed: the volume left over after filling the open boxes, divided by
+ * the largest box (L1), and the Martello-Toth L2 bound of the whole order. Once the incumbent
+ * reaches the bound, only layouts with less box volume are explored. Identical products are placed
+ * in non-decreasing box order, open boxes in the same state are tried once, and partial layouts
+ * already explored through another path are skipped.
+ * <p>
+ * Only orders up to {@code packing.exact.max-items} products are searched, and a search stops after
+ * {@code packing.exact.node-limit} nodes or {@code packing.exact.time-budget-ms}, keeping the best
+ * layout found by then.
+ */
+@Component
+public class ExactPackingStrategy implements PackingStrategy {
+
+  public static final String NAME = "exact";
+  static final long DEFAULT_TIME_BUDGET_MS = 5;
+  private static final int MEMO_LIMIT = 1 << 16;
+  private final PackingStrategy incumbent = new FirstFitDecreasingStrategy();
+  private final int maxItems;
+  private final long nodeLimit;
+  private final long timeBudgetNanos;
+
+  public ExactPackingStrategy(int maxItems, long nodeLimit) {
+    this(maxItems, nodeLimit, DEFAULT_TIME_BUDGET_MS);
+  }
+
+  @Autowired
+  public ExactPackingStrategy(@Value("${packing.exact.max-items:12}") int maxItems,
+                              @Value("${packing.exact.node-limit:200000}") long nodeLimit,
+                              @Value("${packing.exact.time-budget-ms:" + DEFAULT_TIME_BUDGET_MS + "}") long timeBudgetMs) {
+    this.maxItems = maxItems;
+    this.nodeLimit = nodeLimit;
+    this.timeBudgetNanos = TimeUnit.MILLISECONDS.toNanos(timeBudgetMs);
+  }
+
+  @Override
+  public String name() {
+    return NAME;
+  }
+
+  /**
+   * @return the largest order, in products, this strategy searches exhaustively.
+   */
+  public int maxItems() {
+    return maxItems;
+  }
+
+  @Override
+  public void pack(OrderColumns order, BoxCatalog catalog, PackingWorkspace workspace) {
+    long deadline = System.nanoTime() + timeBudgetNanos;
+    incumbent.pack(order, catalog, workspace);
+    if (order.size() > maxItems || catalog.size() > Long.SIZE || workspace.boxCount() < 2) {
+      return;
+    }
+    Search search = new Search(order, catalog, workspace, deadline);
+    if (search.solve()) {
+      workspace.clear();
+      search.writeTo(workspace);
+    }
+    if (search.stopped) {
+      workspace.markBudgetExceeded();
+    }
+  }
+
+  private final class Search {
+    private final long deadline;
+    private final long[] typeVolumes;
+    private final long[] typeWeightCapacities;
+    private final boolean weightLimited;
+    private final long largestTypeVolume;
+
+    private final int[] items;
+    private final long[] itemVolumes;
+    private final long[] itemWeights;
+    private final long[] itemMasks;
+    private final boolean[] sameAsPrevious;
+    private final long[] remainingVolumes;
+    private final int itemCount;
+    private final int[] unpackable;
+    private final int rootLowerBound;
+
+    private final long[] binLoads;
+    private final long[] binWeights;
+    private final long[] binMasks;
+    private final long[] binVolumes;
+    private final int[] assignment;
+    private int binCount;
+    private long openVolume;
+
+    private final int[] bestAssignment;
+    private final long[] bestBinLoads;
+    private final long[] bestBinWeights;
+    private final long[] bestBinMasks;
+    private int bestBinCount;
+    private long bestTotalVolume;
+    private boolean improved;
+
+    private final Set<State> explored = new HashSet<>();
+    private long nodes;
+    private boolean stopped;
+
+    private Search(OrderColumns order, BoxCatalog catalog, PackingWorkspace workspace, long deadline) {
+      this.deadline = deadline;
+      this.typeVolumes = new long[catalog.size()];
+      this.typeWeightCapacities = new long[catalog.size()];
+      for (int t = 0; t < catalog.size(); t++) {
+        typeVolumes[t] = catalog.get(t).volume();
+        typeWeightCapacities[t] = catalog.get(t).weightCapacity();
+      }
+      this.weightLimited = catalog.weightLimited();
+      this.largestTypeVolume = typeVolumes[typeVolumes.length - 1];
+
+      int[] packable = new int[order.size()];
+      long[] masks = new long[order.size()];
+      int[] notPackable = new int[order.size()];
+      int count = 0;
+      int notPackableCount = 0;
+      for (int productIndex = 0; productIndex < order.size(); productIndex++) {
+        long mask = order.compatibility(productIndex, catalog).mask()[0];
+        for (long remaining = mask; weightLimited && remaining != 0; remaining &= remaining - 1) {
+          int type = Long.numberOfTrailingZeros(remaining);
+          if (order.weight(productIndex) > typeWeightCapacities[type]) {
+            mask &= ~(1L << type);
+          }
+        }
+        if (mask == 0) {
+          notPackable[notPackableCount++] = productIndex;
+        } else {
+          packable[count] = productIndex;
+          masks[count] = mask;
+          count++;
+        }
+      }
+      this.itemCount = count;
+      this.items = packable;
+      this.itemMasks = masks;
+      this.unpackable = Arrays.copyOf(notPackable, notPackableCount);
+      this.itemVolumes = new long[count];
+      this.itemWeights = new long[count];
+      this.sameAsPrevious = new boolean[count];
+      for (int i = 0; i < count; i++) {
+        itemVolumes[i] = order.volume(items[i]);
+        itemWeights[i] = order.weight(items[i]);
+        sameAsPrevious[i] = i > 0 && itemMasks[i] == itemMasks[i - 1] && itemWeights[i] == itemWeights[i - 1]
+            && order.sameShape(items[i], items[i - 1]);
+      }
+      this.remainingVolumes = new long[count + 1];
+      for (int i = count - 1; i >= 0; i--) {
+        remainingVolumes[i] = remainingVolumes[i + 1] + itemVolumes[i];
+      }
+      this.rootLowerBound = Math.max(volumeLowerBound(), weightLowerBound());
+
+      this.binLoads = new long[count];
+      this.binWeights = new long[count];
+      this.binMasks = new long[count];
+      this.binVolumes = new long[count];
+      this.assignment = new int[count];
+      this.bestAssignment = new int[count];
+      this.bestBinLoads = new long[count];
+      this.bestBinWeights = new long[count];
+      this.bestBinMasks = new long[count];
+      this.bestBinCount = workspace.boxCount();
+      for (int box = 0; box < workspace.boxCount(); box++) {
+        bestTotalVolume += workspace.boxType(box).volume();
+      }
+    }
+
+    /**
+     * @return true if a layout better than first-fit was found.
+     */
+    private boolean solve() {
+      search(0);
+      return improved;
+    }
+
+    private void writeTo(PackingWorkspace workspace) {
+      for (int productIndex : unpackable) {
+        workspace.markUnpackable(productIndex);
+      }
+      for (int bin = 0; bin < bestBinCount; bin++) {
+        int boxIndex = workspace.openBox(smallestType(bestBinMasks[bin], bestBinLoads[bin], bestBinWeights[bin]));
+        for (int i = 0; i < itemCount; i++) {
+          if (bestAssignment[i] == bin) {
+            workspace.place(boxIndex, items[i], itemVolumes[i], itemWeights[i]);
+          }
+        }
+      }
+    }
+
+    private void search(int item) {
+      if (nodes++ >= nodeLimit || ((nodes & 0xFF) == 0 && System.nanoTime() - deadline >= 0)) {
+        stopped = true;
+      }
+      if (stopped) {
+        return;
+      }
+      if (item == itemCount) {
+        recordSolution();
+        return;
+      }
+      int lowerBound = lowerBound(item);
+      if (lowerBound > bestBinCount || (lowerBound == bestBinCount && openVolume >= bestTotalVolume)) {
+        return;
+      }
+      if (!sameAsPrevious[item] && !firstVisit(item)) {
+        return;
+      }
+
+      int firstBin = sameAsPrevious[item] ? assignment[item - 1] : 0;
+      for (int bin = firstBin; bin < binCount; bin++) {
+        long mask = binMasks[bin] & itemMasks[item];
+        long load = binLoads[bin] + itemVolumes[item];
+        long weight = binWeights[bin] + itemWeights[item];
+        if (mask == 0 || largestVolume(mask) < load || sameStateAsEarlierBin(firstBin, bin)) {
+          continue;
+        }
+        int type = smallestType(mask, load, weight);
+        if (type < 0) {
+          continue;
+        }
+        long previousMask = binMasks[bin];
+        long previousVolume = binVolumes[bin];
+        binMasks[bin] = mask;
+        binLoads[bin] = load;
+        binWeights[bin] = weight;
+        binVolumes[bin] = typeVolumes[type];
+        openVolume += binVolumes[bin] - previousVolume;
+        assignment[item] = bin;
+        search(item + 1);
+        openVolume -= binVolumes[bin] - previousVolume;
+        binMasks[bin] = previousMask;
+        binLoads[bin] = load - itemVolumes[item];
+        binWeights[bin] = weight - itemWeights[item];
+        binVolumes[bin] = previousVolume;
+      }
+      if (binCount < bestBinCount) {
+        int type = smallestType(itemMasks[item], itemVolumes[item], itemWeights[item]);
+        binMasks[binCount] = itemMasks[item];
+        binLoads[binCount] = itemVolumes[item];
+        binWeights[binCount] = itemWeights[item];
+        binVolumes[binCount] = typeVolumes[type];
+        openVolume += binVolumes[binCount];
+        assignment[item] = binCount;
+        binCount++;
+        search(item + 1);
+        binCount--;
+        openVolume -= binVolumes[binCount];
+      }
+    }
+
+    /**
+     * L1 bound at a node: the open boxes, plus as many of the largest box as the remaining volume
+     * needs once the spare room of the open boxes is used up. Never below the bound of the order.
+     */
+    private int lowerBound(int item) {
+      long spare = 0;
+      for (int bin = 0; bin < binCount; bin++) {
+        spare += largestVolume(binMasks[bin]) - binLoads[bin];
+      }
+      long overflow = remainingVolumes[item] - spare;
+      int bound = overflow > 0 ? binCount + (int) ceilDiv(overflow, largestTypeVolume) : binCount;
+      return Math.max(bound, rootLowerBound);
+    }
+
+    /**
+     * Martello-Toth L2 bound on the volumes, with every box as large as the largest type. For each
+     * threshold k, items bigger than the capacity minus k each need their own box, items bigger
+     * than half the capacity cannot share one, and the items between k and half the capacity must
+     * fit in the room the latter leave or in new boxes.
+     */
+    private int volumeLowerBound() {
+      long capacity = largestTypeVolume;
+      int bound = (int) ceilDiv(remainingVolumes[0], capacity);
+      for (int k = 0; k <= itemCount; k++) {
+        long threshold = k < itemCount ? Math.min(itemVolumes[k], capacity / 2) : 0;
+        int large = 0;
+        int medium = 0;
+        long mediumVolume = 0;
+        long smallVolume = 0;
+        for (int i = 0; i < itemCount; i++) {
+          long volume = itemVolumes[i];
+          if (volume > capacity - threshold) {
+            large++;
+          } else if (volume * 2 > capacity) {
+            medium++;
+            mediumVolume += volume;
+          } else if (volume >= threshold) {
+            smallVolume += volume;
+          }
+        }
+        long overflow = smallVolume - (medium * capacity - mediumVolume);
+        bound = Math.max(bound, large + medium + (overflow > 0 ? (int) ceilDiv(overflow, capacity) : 0));
+      }
+      return bound;
+    }
+
+    /**
+     * @return the boxes the total weight needs when every box type has a weight limit, 0 otherwise.
+     */
+    private int weightLowerBound() {
+      long largestCapacity = 0;
+      for (long capacity : typeWeightCapacities) {
+        largestCapacity = Math.max(largestCapacity, capacity);
+      }
+      if (largestCapacity == Long.MAX_VALUE) {
+        return 0;
+      }
+      long totalWeight = 0;
+      for (long weight : itemWeights) {
+        totalWeight += weight;
+      }
+      return (int) ceilDiv(totalWeight, largestCapacity);
+    }
+
+    /**
+     * @return true if a box between firstBin and bin has the same contents signature, so placing the
+     * item in it was already tried.
+     */
+    private boolean sameStateAsEarlierBin(int firstBin, int bin) {
+      for (int earlier = firstBin; earlier < bin; earlier++) {
+        if (binMasks[earlier] == binMasks[bin] && binLoads[earlier] == binLoads[bin]
+            && binWeights[earlier] == binWeights[bin]) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    /**
+     * @return false if the same partial layout was already explored. Only called for items that are
+     * not bound to the box of an identical predecessor, so the rest of the search depends on the
+     * state alone. The set stops growing at {@value #MEMO_LIMIT} states.
+     */
+    private boolean firstVisit(int item) {
+      State state = state(item);
+      if (explored.contains(state)) {
+        return false;
+      }
+      if (explored.size() < MEMO_LIMIT) {
+        explored.add(state);
+      }
+      return true;
+    }
+
+    /**
+     * The next item and the open boxes as an unordered set of (mask, load, weight), which is all
+     * the rest of the search depends on.
+     */
+    private State state(int item) {
+      long[] bins = new long[binCount * 3];
+      for (int bin = 0; bin < binCount; bin++) {
+        int position = bin;
+        while (position > 0 && compareBin(bins, position - 1, bin) > 0) {
+          System.arraycopy(bins, (position - 1) * 3, bins, position * 3, 3);
+          position--;
+        }
+        bins[position * 3] = binMasks[bin];
+        bins[position * 3 + 1] = binLoads[bin];
+        bins[position * 3 + 2] = binWeights[bin];
+      }
+      return new State(item, bins);
+    }
+
+    private int compareBin(long[] bins, int position, int bin) {
+      int compare = Long.compare(bins[position * 3], binMasks[bin]);
+      if (compare == 0) {
+        compare = Long.compare(bins[position * 3 + 1], binLoads[bin]);
+      }
+      return compare != 0 ? compare : Long.compare(bins[position * 3 + 2], binWeights[bin]);
+    }
+
+    private void recordSolution() {
+      if (binCount < bestBinCount || (binCount == bestBinCount && openVolume < bestTotalVolume)) {
+        improved = true;
+        bestBinCount = binCount;
+        bestTotalVolume = openVolume;
+        System.arraycopy(assignment, 0, bestAssignment, 0, itemCount);
+        System.arraycopy(binLoads, 0, bestBinLoads, 0, binCount);
+        System.arraycopy(binWeights, 0, bestBinWeights, 0, binCount);
+        System.arraycopy(binMasks, 0, bestBinMasks, 0, binCount);
+      }
+    }
+
+    private long largestVolume(long mask) {
+      return typeVolumes[Long.SIZE - 1 - Long.numberOfLeadingZeros(mask)];
+    }
+
+    /**
+     * @return the smallest type in the mask with room for the volume and weight, or -1 if none has.
+     */
+    private int smallestType(long mask, long load, long weight) {
+      for (long remaining = mask; remaining != 0; remaining &= remaining - 1) {
+        int type = Long.numberOfTrailingZeros(remaining);
+        if (typeVolumes[type] >= load && typeWeightCapacities[type] >= weight) {
+          return type;
+        }
+      }
+      return -1;
+    }
+  }
+
+  private static long ceilDiv(long dividend, long divisor) {
+    return (dividend + divisor - 1) / divisor;
+  }
+
+  private record State(int item, long[] bins) {
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof State that && item == that.item && Arrays.equals(bins, that.bins);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * item + Arrays.hashCode(bins);
+    }
+  }
+}
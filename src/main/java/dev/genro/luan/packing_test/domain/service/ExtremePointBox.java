@@ -0,0 +1,208 @@
+package dev.genro.luan.packing_test.domain.service;
+
+import dev.genro.luan.packing_test.domain.model.BoxType;
+
+import java.util.Arrays;
+
+/**
+ * Geometric state of one open box for the extreme-point heuristic (Crainic, Perboli and Tadei).
+ * The box spans {@code [0, length) x [0, width) x [0, height)}. Every placed item is an axis-aligned
+ * cuboid, and the extreme points are the candidate corners where the next item may be placed.
+ * Coordinates and sizes are kept in flat int arrays, six values per item and three per point.
+ */
+final class ExtremePointBox {
+
+  private static final int[][] ORIENTATIONS = {
+      {0, 1, 2}, {0, 2, 1}, {1, 0, 2}, {1, 2, 0}, {2, 0, 1}, {2, 1, 0}
+  };
+
+  private final BoxType boxType;
+  private final int sizeX;
+  private final int sizeY;
+  private final int sizeZ;
+  private long remainingVolume;
+
+  private int[] items = new int[6 * 8];
+  private int itemCount;
+  private int[] points = new int[3 * 16];
+  private int pointCount;
+
+  ExtremePointBox(BoxType boxType) {
+    this.boxType = boxType;
+    this.sizeX = boxType.dimension().length();
+    this.sizeY = boxType.dimension().width();
+    this.sizeZ = boxType.dimension().height();
+    this.remainingVolume = boxType.volume();
+    addPoint(0, 0, 0);
+  }
+
+  BoxType boxType() {
+    return boxType;
+  }
+
+  long remainingVolume() {
+    return remainingVolume;
+  }
+
+  int itemCount() {
+    return itemCount;
+  }
+
+  /**
+   * Returns the placement of the given item as {@code {x, y, z, sizeX, sizeY, sizeZ}}.
+   */
+  int[] placement(int itemIndex) {
+    return Arrays.copyOfRange(items, itemIndex * 6, itemIndex * 6 + 6);
+  }
+
+  /**
+   * Tries every extreme point, lowest first, with every orientation of the product and places it at
+   * the first position that stays inside the box and does not overlap any placed item.
+   *
+   * @return true if the product was placed.
+   */
+  boolean tryPlace(int height, int width, int length, long productVolume) {
+    if (productVolume > remainingVolume) {
+      return false;
+    }
+    int[] sides = {length, width, height};
+    for (int p = 0; p < pointCount; p++) {
+      int x = points[p * 3];
+      int y = points[p * 3 + 1];
+      int z = points[p * 3 + 2];
+      for (int[] orientation : ORIENTATIONS) {
+        int dx = sides[orientation[0]];
+        int dy = sides[orientation[1]];
+        int dz = sides[orientation[2]];
+        if (x + dx <= sizeX && y + dy <= sizeY && z + dz <= sizeZ && !overlapsAny(x, y, z, dx, dy, dz)) {
+          place(p, x, y, z, dx, dy, dz, productVolume);
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private void place(int pointIndex, int x, int y, int z, int dx, int dy, int dz, long volume) {
+    removePoint(pointIndex);
+    if (itemCount * 6 == items.length) {
+      items = Arrays.copyOf(items, items.length * 2);
+    }
+    int base = itemCount * 6;
+    items[base] = x;
+    items[base + 1] = y;
+    items[base + 2] = z;
+    items[base + 3] = dx;
+    items[base + 4] = dy;
+    items[base + 5] = dz;
+    itemCount++;
+    remainingVolume -= volume;
+
+    // Each corner adjacent to the new item is projected back along the two other axes until it
+    // rests on a placed item or on a wall of the box.
+    addProjectedPoint(x + dx, y, z, 1);
+    addProjectedPoint(x + dx, y, z, 2);
+    addProjectedPoint(x, y + dy, z, 0);
+    addProjectedPoint(x, y + dy, z, 2);
+    addProjectedPoint(x, y, z + dz, 0);
+    addProjectedPoint(x, y, z + dz, 1);
+    pruneCoveredPoints();
+  }
+
+  private void addProjectedPoint(int x, int y, int z, int axis) {
+    int[] point = {x, y, z};
+    point[axis] = projectionLimit(point, axis);
+    addPoint(point[0], point[1], point[2]);
+  }
+
+  /**
+   * Largest far face of a placed item below the point on the given axis whose cross-section covers
+   * the point, or 0 when nothing is in between the point and the wall.
+   */
+  private int projectionLimit(int[] point, int axis) {
+    int limit = 0;
+    int first = (axis + 1) % 3;
+    int second = (axis + 2) % 3;
+    for (int i = 0; i < itemCount; i++) {
+      int base = i * 6;
+      int farFace = items[base + axis] + items[base + 3 + axis];
+      if (farFace <= point[axis] && farFace > limit
+          && covers(base, first, point[first]) && covers(base, second, point[second])) {
+        limit = farFace;
+      }
+    }
+    return limit;
+  }
+
+  private boolean covers(int base, int axis, int coordinate) {
+    return items[base + axis] <= coordinate && coordinate < items[base + axis] + items[base + 3 + axis];
+  }
+
+  private boolean overlapsAny(int x, int y, int z, int dx, int dy, int dz) {
+    for (int i = 0; i < itemCount; i++) {
+      int base = i * 6;
+      if (x < items[base] + items[base + 3] && items[base] < x + dx
+          && y < items[base + 1] + items[base + 4] && items[base + 1] < y + dy
+          && z < items[base + 2] + items[base + 5] && items[base + 2] < z + dz) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void addPoint(int x, int y, int z) {
+    if (x >= sizeX || y >= sizeY || z >= sizeZ) {
+      return;
+    }
+    for (int p = 0; p < pointCount; p++) {
+      if (points[p * 3] == x && points[p * 3 + 1] == y && points[p * 3 + 2] == z) {
+        return;
+      }
+    }
+    if (pointCount * 3 == points.length) {
+      points = Arrays.copyOf(points, points.length * 2);
+    }
+    // Keep points ordered by (z, y, x) so that items are placed bottom-back-left first.
+    int insertAt = pointCount;
+    while (insertAt > 0 && compare(x, y, z, insertAt - 1) < 0) {
+      insertAt--;
+    }
+    System.arraycopy(points, insertAt * 3, points, insertAt * 3 + 3, (pointCount - insertAt) * 3);
+    points[insertAt * 3] = x;
+    points[insertAt * 3 + 1] = y;
+    points[insertAt * 3 + 2] = z;
+    pointCount++;
+  }
+
+  private int compare(int x, int y, int z, int pointIndex) {
+    int base = pointIndex * 3;
+    if (z != points[base + 2]) {
+      return Integer.compare(z, points[base + 2]);
+    }
+    if (y != points[base + 1]) {
+      return Integer.compare(y, points[base + 1]);
+    }
+    return Integer.compare(x, points[base]);
+  }
+
+  private void removePoint(int pointIndex) {
+    System.arraycopy(points, pointIndex * 3 + 3, points, pointIndex * 3, (pointCount - pointIndex - 1) * 3);
+    pointCount--;
+  }
+
+  private void pruneCoveredPoints() {
+    int kept = 0;
+    for (int p = 0; p < pointCount; p++) {
+      int x = points[p * 3];
+      int y = points[p * 3 + 1];
+      int z = points[p * 3 + 2];
+      if (!overlapsAny(x, y, z, 1, 1, 1)) {
+        points[kept * 3] = x;
+        points[kept * 3 + 1] = y;
+        points[kept * 3 + 2] = z;
+        kept++;
+      }
+    }
+    pointCount = kept;
+  }
+}
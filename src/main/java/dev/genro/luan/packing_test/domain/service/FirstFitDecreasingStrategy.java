@@ -0,0 +1,54 @@
+package dev.genro.luan.packing_test.domain.service;
+
+import dev.genro.luan.packing_test.domain.model.BoxCatalog;
+import dev.genro.luan.packing_test.domain.model.BoxCompatibility;
+import org.springframework.stereotype.Component;
+
+/**
+ * Places each product into the first open box with room and weight capacity left for it, opening
+ * the smallest box type that fits when none has.
+ */
+@Component
+public class FirstFitDecreasingStrategy implements PackingStrategy {
+
+  public static final String NAME = "first-fit-decreasing";
+
+  @Override
+  public String name() {
+    return NAME;
+  }
+
+  @Override
+  public void pack(OrderColumns order, BoxCatalog catalog, PackingWorkspace workspace) {
+    for (int productIndex = 0; productIndex < order.size(); productIndex++) {
+      place(order, productIndex, catalog, workspace);
+    }
+  }
+
+  /**
+   * Places one product into the first open box of the workspace that takes it, or into a new box
+   * of the smallest type that fits, or marks it unpackable.
+   */
+  static void place(OrderColumns order, int productIndex, BoxCatalog catalog, PackingWorkspace workspace) {
+    long productVolume = order.volume(productIndex);
+    long productWeight = order.weight(productIndex);
+    BoxCompatibility compatibility = order.compatibility(productIndex, catalog);
+
+    for (int boxIndex = 0; boxIndex < workspace.boxCount(); boxIndex++) {
+      if (productVolume <= workspace.remainingVolume(boxIndex) &&
+          productWeight <= workspace.remainingWeight(boxIndex) &&
+          compatibility.fits(workspace.boxTypeIndex(boxIndex))) {
+        workspace.place(boxIndex, productIndex, productVolume, productWeight);
+        return;
+      }
+    }
+
+    int newBoxType = catalog.smallestFittingIndex(compatibility, productWeight);
+    if (newBoxType >= 0) {
+      int boxIndex = workspace.openBox(newBoxType);
+      workspace.place(boxIndex, productIndex, productVolume, productWeight);
+    } else {
+      workspace.markUnpackable(productIndex);
+    }
+  }
+}
@@ -0,0 +1,61 @@
+package dev.genro.luan.packing_test.domain.service;
+
+import java.util.Comparator;
+import java.util.TreeSet;
+
+/**
+ * Open boxes of one order grouped by box type and ordered by remaining volume, so the tightest box
+ * of a type that still has room for a product is found with a single ceiling lookup.
+ * Boxes of the same type share the dimensional constraint, which is why the grouping is by type.
+ * Each slot also carries the weight the box can still carry; boxes too loaded for a product are
+ * skipped in volume order, so without weight limits the lookup stays a single ceiling.
+ */
+final class OpenBoxIndex {
+
+  static final Comparator<Slot> SLOT_ORDER = Comparator.comparingLong(Slot::remainingVolume)
+      .thenComparingInt(Slot::boxIndex);
+
+  record Slot(long remainingVolume, long remainingWeight, int boxIndex) {
+  }
+
+  private final TreeSet<Slot>[] slotsByType;
+
+  @SuppressWarnings("unchecked")
+  OpenBoxIndex(int boxTypeCount) {
+    this.slotsByType = new TreeSet[boxTypeCount];
+  }
+
+  boolean hasBoxes(int boxTypeIndex) {
+    TreeSet<Slot> slots = slotsByType[boxTypeIndex];
+    return slots != null && !slots.isEmpty();
+  }
+
+  /**
+   * @return the box of the given type with the least remaining volume that is still at least
+   * {@code volume} and can carry {@code weight}, or null if there is none.
+   */
+  Slot tightest(int boxTypeIndex, long volume, long weight) {
+    TreeSet<Slot> slots = slotsByType[boxTypeIndex];
+    if (slots == null) {
+      return null;
+    }
+    Slot slot = slots.ceiling(new Slot(volume, 0, -1));
+    while (slot != null && slot.remainingWeight() < weight) {
+      slot = slots.higher(slot);
+    }
+    return slot;
+  }
+
+  void add(int boxTypeIndex, long remainingVolume, long remainingWeight, int boxIndex) {
+    TreeSet<Slot> slots = slotsByType[boxTypeIndex];
+    if (slots == null) {
+      slots = new TreeSet<>(SLOT_ORDER);
+      slotsByType[boxTypeIndex] = slots;
+    }
+    slots.add(new Slot(remainingVolume, remainingWeight, boxIndex));
+  }
+
+  void remove(int boxTypeIndex, Slot slot) {
+    slotsByType[boxTypeIndex].remove(slot);
+  }
+}
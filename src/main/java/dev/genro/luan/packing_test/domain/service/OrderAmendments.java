@@ -0,0 +1,194 @@
+package dev.genro.luan.packing_test.domain.service;
+
+import dev.genro.luan.packing_test.domain.model.BoxCatalog;
+import dev.genro.luan.packing_test.domain.model.BoxCompatibility;
+import dev.genro.luan.packing_test.domain.model.BoxType;
+import dev.genro.luan.packing_test.exception.InvalidPackingRequestException;
+import dev.genro.luan.packing_test.interfaces.dto.InputValidationResponse;
+import dev.genro.luan.packing_test.interfaces.dto.OrderAmendmentRequest;
+import dev.genro.luan.packing_test.interfaces.dto.OrderRequest;
+import dev.genro.luan.packing_test.interfaces.dto.PackedBoxRequest;
+import dev.genro.luan.packing_test.interfaces.dto.ProductRequest;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Repairs the packing of an order after products were added to or removed from it, instead of
+ * packing the amended order from scratch. The previous boxes are reopened in their previous order
+ * with the products they still hold, so every box that keeps a product keeps its type and its
+ * position in the response. Only the products without a place are then packed first fit, in
+ * packing order: the added ones, the ones the previous packing could not fit, and the ones a
+ * previous box can no longer hold (e.g. after the box type shrank in the catalog). They fill the
+ * room left in the reopened boxes before any new box is opened.
+ * <p>
+ * Boxes left without products are dropped. Boxes are never swapped for a smaller type, as that
+ * would change labels already printed for them.
+ * <p>
+ * The repair only checks volume and weight, like {@link FirstFitDecreasingStrategy}, whatever
+ * strategy packed the order before: the request carries which products a box holds, not where
+ * they sit. A box first packed by {@link SpatialPackingStrategy} is therefore only guaranteed to
+ * hold its amended products by volume.
+ */
+final class OrderAmendments {
+
+  private static final int UNBOXED = -1;
+
+  private OrderAmendments() {
+  }
+
+  /**
+   * Fills the workspace with the repaired packing of the amended order.
+   *
+   * @return the products of the amended order, which the boxes of the workspace refer to.
+   * @throws InvalidPackingRequestException if a previous box has a type the catalog does not have,
+   *                                        or a removed product is not in the previous packing.
+   */
+  static OrderColumns repack(OrderAmendmentRequest amendment, BoxCatalog catalog, PackingWorkspace workspace) {
+    List<InputValidationResponse.InputValidationItem> violations = new ArrayList<>();
+    List<PackedBoxRequest> previousBoxes = amendment.boxes();
+    int[] boxTypes = new int[previousBoxes.size()];
+    List<ProductRequest> products = new ArrayList<>();
+    List<Integer> productBoxes = new ArrayList<>();
+    for (int box = 0; box < previousBoxes.size(); box++) {
+      PackedBoxRequest previousBox = previousBoxes.get(box);
+      boxTypes[box] = previousBox.boxId() != null ? catalog.indexOf(previousBox.boxId()) : UNBOXED;
+      if (previousBox.boxId() != null && boxTypes[box] < 0) {
+        violations.add(new InputValidationResponse.InputValidationItem("boxes[%d].boxId".formatted(box),
+            List.of("Box type %s is not available".formatted(previousBox.boxId()))));
+      }
+      for (ProductRequest product : previousBox.products()) {
+        products.add(product);
+        productBoxes.add(box);
+      }
+    }
+
+    boolean[] removed = removeProducts(products, amendment.removed(), violations);
+    if (!violations.isEmpty()) {
+      throw new InvalidPackingRequestException(violations);
+    }
+
+    List<ProductRequest> amendedProducts = new ArrayList<>(products.size());
+    List<Integer> amendedBoxes = new ArrayList<>(products.size());
+    for (int i = 0; i < products.size(); i++) {
+      if (!removed[i]) {
+        amendedProducts.add(products.get(i));
+        amendedBoxes.add(boxTypes[productBoxes.get(i)] >= 0 ? productBoxes.get(i) : UNBOXED);
+      }
+    }
+    if (amendment.added() != null) {
+      for (ProductRequest product : amendment.added()) {
+        amendedProducts.add(product);
+        amendedBoxes.add(UNBOXED);
+      }
+    }
+
+    OrderColumns order = OrderColumns.of(new OrderRequest(amendment.orderId(), amendedProducts));
+    workspace.reset(catalog);
+    int[] pending = new int[order.size()];
+    int pendingCount = 0;
+    int[] positionsByBox = byPreviousBox(order, amendedBoxes, boxTypes.length);
+    int position = 0;
+    for (int box = 0; box < boxTypes.length; box++) {
+      int boxIndex = UNBOXED;
+      for (; position < positionsByBox.length && amendedBoxes.get(order.requestIndex(positionsByBox[position])) == box;
+           position++) {
+        int productIndex = positionsByBox[position];
+        if (fits(order, productIndex, catalog, boxTypes[box], workspace, boxIndex)) {
+          if (boxIndex == UNBOXED) {
+            boxIndex = workspace.openBox(boxTypes[box]);
+          }
+          workspace.place(boxIndex, productIndex, order.volume(productIndex), order.weight(productIndex));
+        } else {
+          pending[pendingCount++] = productIndex;
+        }
+      }
+    }
+    for (int productIndex = 0; productIndex < order.size(); productIndex++) {
+      if (amendedBoxes.get(order.requestIndex(productIndex)) == UNBOXED) {
+        pending[pendingCount++] = productIndex;
+      }
+    }
+
+    Arrays.sort(pending, 0, pendingCount);
+    for (int i = 0; i < pendingCount; i++) {
+      FirstFitDecreasingStrategy.place(order, pending[i], catalog, workspace);
+    }
+    return order;
+  }
+
+  /**
+   * Flags one previous product per removed id, taking the first one listed, and reports the ids
+   * that are left over.
+   */
+  private static boolean[] removeProducts(List<ProductRequest> products, List<String> removedIds,
+                                          List<InputValidationResponse.InputValidationItem> violations) {
+    boolean[] removed = new boolean[products.size()];
+    if (removedIds == null || removedIds.isEmpty()) {
+      return removed;
+    }
+    Map<String, ArrayDeque<Integer>> indexesById = new HashMap<>();
+    for (int i = 0; i < products.size(); i++) {
+      indexesById.computeIfAbsent(products.get(i).productId(), id -> new ArrayDeque<>()).add(i);
+    }
+    List<String> messages = new ArrayList<>();
+    for (String removedId : removedIds) {
+      ArrayDeque<Integer> indexes = indexesById.get(removedId);
+      if (indexes == null || indexes.isEmpty()) {
+        messages.add("Product %s is not in the previous packing".formatted(removedId));
+      } else {
+        removed[indexes.poll()] = true;
+      }
+    }
+    if (!messages.isEmpty()) {
+      violations.add(new InputValidationResponse.InputValidationItem("removed", messages));
+    }
+    return removed;
+  }
+
+  /**
+   * @return the positions of the products that were in a previous box, grouped by that box and in
+   * packing order within each group.
+   */
+  private static int[] byPreviousBox(OrderColumns order, List<Integer> amendedBoxes, int boxCount) {
+    int[] starts = new int[boxCount + 1];
+    int boxedCount = 0;
+    for (int productIndex = 0; productIndex < order.size(); productIndex++) {
+      int box = amendedBoxes.get(order.requestIndex(productIndex));
+      if (box != UNBOXED) {
+        starts[box + 1]++;
+        boxedCount++;
+      }
+    }
+    for (int box = 0; box < boxCount; box++) {
+      starts[box + 1] += starts[box];
+    }
+    int[] positions = new int[boxedCount];
+    for (int productIndex = 0; productIndex < order.size(); productIndex++) {
+      int box = amendedBoxes.get(order.requestIndex(productIndex));
+      if (box != UNBOXED) {
+        positions[starts[box]++] = productIndex;
+      }
+    }
+    return positions;
+  }
+
+  /**
+   * @param boxIndex the workspace box reopened for the previous box, or {@link #UNBOXED} while it
+   *                 holds nothing yet.
+   * @return true if the product can go back into the previous box of the given type.
+   */
+  private static boolean fits(OrderColumns order, int productIndex, BoxCatalog catalog, int boxTypeIndex,
+                              PackingWorkspace workspace, int boxIndex) {
+    BoxCompatibility compatibility = order.compatibility(productIndex, catalog);
+    BoxType boxType = catalog.get(boxTypeIndex);
+    long remainingVolume = boxIndex == UNBOXED ? boxType.volume() : workspace.remainingVolume(boxIndex);
+    long remainingWeight = boxIndex == UNBOXED ? boxType.weightCapacity() : workspace.remainingWeight(boxIndex);
+    return compatibility.fits(boxTypeIndex) && order.volume(productIndex) <= remainingVolume
+        && order.weight(productIndex) <= remainingWeight;
+  }
+}
@@ -0,0 +1,234 @@
+package dev.genro.luan.packing_test.domain.service;
+
+import dev.genro.luan.packing_test.domain.model.BoxCatalog;
+import dev.genro.luan.packing_test.domain.model.BoxCompatibility;
+import dev.genro.luan.packing_test.interfaces.dto.DimensionRequest;
+import dev.genro.luan.packing_test.interfaces.dto.OrderRequest;
+import dev.genro.luan.packing_test.interfaces.dto.ProductRequest;
+
+import java.util.List;
+
+/**
+ * The products of one order in packing order, stored column-wise: every attribute is a primitive
+ * array indexed by the position of the product in that order, which is how strategies and the
+ * {@link PackingWorkspace} refer to products. Packing reads sides, volumes and weights straight
+ * from these arrays; product ids stay in the request and are only looked up, through
+ * {@link #productId(int)}, when the response is built.
+ * <p>
+ * The packing order is the largest volume first. Ties are broken by canonical sides, then heaviest
+ * first, so that orders with the same multiset of products produce the same sequence, which is what
+ * {@link PackingResultCache} keys on. The sort is stable, so products that are identical up to
+ * rotation keep their request order.
+ */
+public final class OrderColumns {
+
+  /**
+   * Runs up to this length are sorted by insertion before merging.
+   */
+  private static final int INSERTION_SORT_THRESHOLD = 16;
+
+  private final List<ProductRequest> requestProducts;
+  private final int[] requestIndexes;
+  private final int[] heights;
+  private final int[] widths;
+  private final int[] lengths;
+  private final int[] smallestSides;
+  private final int[] middleSides;
+  private final int[] largestSides;
+  private final long[] volumes;
+  private final int[] weights;
+  private BoxCatalog resolvedCatalog;
+  private BoxCompatibility[] compatibilities;
+
+  private OrderColumns(List<ProductRequest> requestProducts, int size) {
+    this.requestProducts = requestProducts;
+    this.requestIndexes = new int[size];
+    this.heights = new int[size];
+    this.widths = new int[size];
+    this.lengths = new int[size];
+    this.smallestSides = new int[size];
+    this.middleSides = new int[size];
+    this.largestSides = new int[size];
+    this.volumes = new long[size];
+    this.weights = new int[size];
+  }
+
+  /**
+   * Reads the products of the request into columns sorted in packing order.
+   */
+  static OrderColumns of(OrderRequest orderRequest) {
+    List<ProductRequest> products = orderRequest.products();
+    int size = products.size();
+    // The request indexes are sorted first, so that the columns are filled once, in packing order.
+    int[] order = new int[size];
+    for (int i = 0; i < size; i++) {
+      order[i] = i;
+    }
+    sort(products, order, new int[size], 0, size);
+
+    OrderColumns columns = new OrderColumns(products, size);
+    for (int i = 0; i < size; i++) {
+      ProductRequest product = products.get(order[i]);
+      DimensionRequest dimension = product.dimension();
+      columns.set(i, order[i], dimension.height(), dimension.width(), dimension.length(), weight(product));
+    }
+    return columns;
+  }
+
+  private void set(int index, int requestIndex, int height, int width, int length, int weight) {
+    requestIndexes[index] = requestIndex;
+    heights[index] = height;
+    widths[index] = width;
+    lengths[index] = length;
+    smallestSides[index] = smallestSide(height, width, length);
+    middleSides[index] = middleSide(height, width, length);
+    largestSides[index] = Math.max(height, Math.max(width, length));
+    volumes[index] = (long) height * width * length;
+    weights[index] = weight;
+  }
+
+  public int size() {
+    return volumes.length;
+  }
+
+  /**
+   * @return the position of the product in the request it was read from.
+   */
+  public int requestIndex(int index) {
+    return requestIndexes[index];
+  }
+
+  public String productId(int index) {
+    return requestProducts.get(requestIndexes[index]).productId();
+  }
+
+  public int height(int index) {
+    return heights[index];
+  }
+
+  public int width(int index) {
+    return widths[index];
+  }
+
+  public int length(int index) {
+    return lengths[index];
+  }
+
+  public int smallestSide(int index) {
+    return smallestSides[index];
+  }
+
+  public int middleSide(int index) {
+    return middleSides[index];
+  }
+
+  public int largestSide(int index) {
+    return largestSides[index];
+  }
+
+  public long volume(int index) {
+    return volumes[index];
+  }
+
+  /**
+   * @return weight of the product in grams, 0 when unknown.
+   */
+  public int weight(int index) {
+    return weights[index];
+  }
+
+  /**
+   * @return true if both products have the same canonical sides, i.e. are identical up to rotation.
+   */
+  public boolean sameShape(int first, int second) {
+    return smallestSides[first] == smallestSides[second]
+        && middleSides[first] == middleSides[second]
+        && largestSides[first] == largestSides[second];
+  }
+
+  /**
+   * @return the box types of the catalog that can hold the product on its own. The answers are
+   * resolved for the whole order on first use, with a single catalog lookup per run of identically
+   * shaped products, which the packing order keeps next to each other.
+   */
+  public BoxCompatibility compatibility(int index, BoxCatalog catalog) {
+    if (catalog != resolvedCatalog) {
+      resolveCompatibilities(catalog);
+    }
+    return compatibilities[index];
+  }
+
+  private void resolveCompatibilities(BoxCatalog catalog) {
+    BoxCompatibility[] resolved = new BoxCompatibility[size()];
+    for (int i = 0; i < resolved.length; i++) {
+      resolved[i] = i > 0 && sameShape(i, i - 1) ?
+          resolved[i - 1] :
+          catalog.compatibility(smallestSides[i], middleSides[i], largestSides[i]);
+    }
+    this.compatibilities = resolved;
+    this.resolvedCatalog = catalog;
+  }
+
+  /**
+   * Stable merge sort of the request indexes in {@code order[from, to)} by packing order, using
+   * {@code buffer} as scratch space of the same length.
+   */
+  private static void sort(List<ProductRequest> products, int[] order, int[] buffer, int from, int to) {
+    if (to - from <= INSERTION_SORT_THRESHOLD) {
+      for (int i = from + 1; i < to; i++) {
+        int position = order[i];
+        int j = i - 1;
+        for (; j >= from && compare(products.get(order[j]), products.get(position)) > 0; j--) {
+          order[j + 1] = order[j];
+        }
+        order[j + 1] = position;
+      }
+      return;
+    }
+    int middle = (from + to) >>> 1;
+    sort(products, order, buffer, from, middle);
+    sort(products, order, buffer, middle, to);
+    if (compare(products.get(order[middle - 1]), products.get(order[middle])) <= 0) {
+      return;
+    }
+    System.arraycopy(order, from, buffer, from, to - from);
+    int left = from;
+    int right = middle;
+    for (int i = from; i < to; i++) {
+      order[i] = right >= to
+          || (left < middle && compare(products.get(buffer[left]), products.get(buffer[right])) <= 0) ?
+          buffer[left++] :
+          buffer[right++];
+    }
+  }
+
+  private static int compare(ProductRequest first, ProductRequest second) {
+    DimensionRequest a = first.dimension();
+    DimensionRequest b = second.dimension();
+    int result = Long.compare((long) b.height() * b.width() * b.length(), (long) a.height() * a.width() * a.length());
+    if (result == 0) {
+      result = Integer.compare(smallestSide(a.height(), a.width(), a.length()),
+          smallestSide(b.height(), b.width(), b.length()));
+    }
+    if (result == 0) {
+      result = Integer.compare(middleSide(a.height(), a.width(), a.length()),
+          middleSide(b.height(), b.width(), b.length()));
+    }
+    if (result == 0) {
+      result = Integer.compare(weight(second), weight(first));
+    }
+    return result;
+  }
+
+  private static int smallestSide(int height, int width, int length) {
+    return Math.min(height, Math.min(width, length));
+  }
+
+  private static int middleSide(int height, int width, int length) {
+    return Math.max(Math.min(height, width), Math.min(Math.max(height, width), length));
+  }
+
+  private static int weight(ProductRequest product) {
+    return product.weight() != null ? product.weight() : 0;
+  }
+}
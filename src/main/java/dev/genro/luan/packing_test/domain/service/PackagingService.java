@@ -1,8 +1,42 @@
 package dev.genro.luan.packing_test.domain.service;
 
+import dev.genro.luan.packing_test.interfaces.dto.OrderAmendmentRequest;
+import dev.genro.luan.packing_test.interfaces.dto.OrderBoxesResponse;
+import dev.genro.luan.packing_test.interfaces.dto.OrderRequest;
 import dev.genro.luan.packing_test.interfaces.dto.OrdersResponse;
 import dev.genro.luan.packing_test.interfaces.dto.PackageOrderRequest;
 
+import java.util.Iterator;
+import java.util.function.Consumer;
+
 public interface PackagingService {
+  /**
+   * Packs the request with the algorithm named in its body, without forcing a trace.
+   */
   OrdersResponse packOrders(PackageOrderRequest orderRequests);
-}
\ No newline at end of file
+
+  /**
+   * Packs the request with the given options. The algorithm of the options takes precedence over the
+   * request body, so callers merge the two beforehand.
+   */
+  OrdersResponse packOrders(PackageOrderRequest orderRequests, PackingOptions options);
+
+  /**
+   * Packs orders one at a time as the iterator yields them and hands each result to the consumer
+   * before the next order is read, so neither the input nor the output batch is held in memory.
+   *
+   * @param options the packing strategy and tracing to use for every order of the stream.
+   */
+  void packOrderStream(Iterator<OrderRequest> orders, PackingOptions options, Consumer<OrderBoxesResponse> consumer);
+
+  /**
+   * Repairs a previous packing of an order after products were added or removed, keeping the
+   * previous boxes that still hold products and packing only the products without a place.
+   */
+  OrderBoxesResponse amendOrder(OrderAmendmentRequest amendment);
+
+  /**
+   * @return true if the algorithm names a registered packing strategy.
+   */
+  boolean supportsAlgorithm(String algorithm);
+}
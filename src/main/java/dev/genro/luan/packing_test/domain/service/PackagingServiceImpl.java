@@ -1,120 +1,264 @@
 package dev.genro.luan.packing_test.domain.service;
 
+import dev.genro.luan.packing_test.domain.model.BoxCatalog;
+import dev.genro.luan.packing_test.domain.model.BoxCatalogHolder;
 import dev.genro.luan.packing_test.domain.model.BoxType;
-import dev.genro.luan.packing_test.domain.model.Dimension;
-import dev.genro.luan.packing_test.domain.model.Product;
+import dev.genro.luan.packing_test.exception.UnsupportedPackingAlgorithmException;
 import dev.genro.luan.packing_test.interfaces.dto.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class PackagingServiceImpl implements PackagingService {
 
   private static final Logger log = LoggerFactory.getLogger(PackagingServiceImpl.class);
-  private final List<BoxType> availableBoxTypes;
+  private static final String AMENDMENT_METRIC_NAME = "amendment";
+  /**
+   * Default strategies the exact strategy may stand in for on small orders: they only check volumes
+   * and aim for the fewest boxes, which the exact search never does worse at.
+   */
+  private static final Set<String> VOLUME_ONLY_STRATEGIES = Set.of(FirstFitDecreasingStrategy.NAME,
+      BestFitDecreasingStrategy.NAME, WorstFitDecreasingStrategy.NAME);
+  private final BoxCatalogHolder boxCatalogs;
+  private final Map<String, PackingStrategy> strategies;
+  private final String defaultAlgorithm;
+  private final PackingStrategy smallOrderStrategy;
+  private final int smallOrderMaxItems;
+  private final ExecutorService packingExecutor;
+  private final int parallelThreshold;
+  private final int parallelChunkSize;
+  private final double traceSampleRate;
+  private final PackingResultCache resultCache;
+  private final PackingMetrics metrics;
 
-  private record OpenBox(BoxType boxType, List<Product> packedProducts, long remainingVolume) {
-    public OpenBox addProduct(Product product) {
-      List<Product> newProductList = new ArrayList<>(packedProducts);
-      newProductList.add(product);
-      return new OpenBox(boxType, newProductList, remainingVolume - product.volume());
-    }
+  public PackagingServiceImpl(List<BoxType> availableBoxTypes) {
+    this(availableBoxTypes, List.of(new FirstFitDecreasingStrategy()), FirstFitDecreasingStrategy.NAME);
   }
 
-  public PackagingServiceImpl(List<BoxType> availableBoxTypes) {
-    this.availableBoxTypes = availableBoxTypes;
-    log.info("Initialized PackagingService with {} box types.", availableBoxTypes.size());
-    availableBoxTypes.forEach(box -> log.info("Available Box: {} - Volume: {}", box.name(), box.volume()));
+  public PackagingServiceImpl(List<BoxType> availableBoxTypes, List<PackingStrategy> strategies, String defaultAlgorithm) {
+    this(new BoxCatalogHolder(new BoxCatalog(availableBoxTypes)), strategies, defaultAlgorithm, 0, null, Integer.MAX_VALUE, 1,
+        0, PackingResultCache.disabled(), PackingMetrics.disabled());
+  }
+
+  @Autowired
+  public PackagingServiceImpl(BoxCatalogHolder boxCatalogs,
+                              List<PackingStrategy> strategies,
+                              @Value("${packing.algorithm:" + FirstFitDecreasingStrategy.NAME + "}") String defaultAlgorithm,
+                              @Value("${packing.exact.auto-max-items:12}") int exactAutoMaxItems,
+                              @Qualifier("packingExecutor") ExecutorService packingExecutor,
+                              @Value("${packing.parallel.threshold:64}") int parallelThreshold,
+                              @Value("${packing.parallel.chunk-size:16}") int parallelChunkSize,
+                              @Value("${packing.trace.sample-rate:0}") double traceSampleRate,
+                              PackingResultCache resultCache,
+                              PackingMetrics metrics) {
+    this.boxCatalogs = boxCatalogs;
+    this.strategies = strategies.stream()
+        .collect(Collectors.toUnmodifiableMap(PackingStrategy::name, Function.identity()));
+    this.defaultAlgorithm = defaultAlgorithm;
+    if (this.strategies.get(ExactPackingStrategy.NAME) instanceof ExactPackingStrategy exact && exactAutoMaxItems > 0
+        && VOLUME_ONLY_STRATEGIES.contains(defaultAlgorithm)) {
+      this.smallOrderStrategy = exact;
+      this.smallOrderMaxItems = Math.min(exactAutoMaxItems, exact.maxItems());
+    } else {
+      this.smallOrderStrategy = null;
+      this.smallOrderMaxItems = 0;
+    }
+    this.packingExecutor = packingExecutor;
+    this.parallelThreshold = parallelThreshold;
+    this.parallelChunkSize = Math.max(1, parallelChunkSize);
+    this.traceSampleRate = traceSampleRate;
+    this.resultCache = resultCache;
+    this.metrics = metrics;
+    resolveStrategy(defaultAlgorithm);
+    BoxCatalog boxCatalog = boxCatalogs.current();
+    log.info("Initialized PackagingService with {} box types and strategies {}.", boxCatalog.size(), this.strategies.keySet());
+    boxCatalog.boxTypes().forEach(box -> log.info("Available Box: {} - Volume: {}", box.name(), box.volume()));
+    if (smallOrderStrategy != null) {
+      log.info("Orders of up to {} products are packed with the {} strategy by default.", smallOrderMaxItems,
+          ExactPackingStrategy.NAME);
+    }
   }
 
   @Override
   public OrdersResponse packOrders(PackageOrderRequest orderRequests) {
-    return new OrdersResponse(orderRequests.orders().stream()
-        .map(this::packSingleOrder)
-        .toList());
+    return packOrders(orderRequests,
+        new PackingOptions(orderRequests.algorithm(), false, orderRequests.timeBudgetMs()));
+  }
+
+  @Override
+  public OrdersResponse packOrders(PackageOrderRequest orderRequests, PackingOptions options) {
+    long requestStart = System.nanoTime();
+    PackingStrategy strategy = resolveStrategy(options.algorithm() != null ? options.algorithm() : defaultAlgorithm);
+    BoxCatalog boxCatalog = boxCatalogs.current();
+    List<OrderRequest> orders = orderRequests.orders();
+    List<OrderBoxesResponse> results;
+    if (packingExecutor == null || orders.size() < parallelThreshold) {
+      PackingWorkspace workspace = newWorkspace(options, requestStart);
+      results = orders.stream()
+          .map(order -> packSingleOrder(order, strategy, options, boxCatalog, workspace))
+          .toList();
+    } else {
+      results = packInParallel(orders, strategy, options, boxCatalog, requestStart);
+    }
+    metrics.recordRequest(dispatchedStrategyName(orders, strategy, options), orders.size(),
+        System.nanoTime() - requestStart);
+    return new OrdersResponse(results);
+  }
+
+  @Override
+  public void packOrderStream(Iterator<OrderRequest> orders, PackingOptions options, Consumer<OrderBoxesResponse> consumer) {
+    PackingStrategy strategy = resolveStrategy(options.algorithm() != null ? options.algorithm() : defaultAlgorithm);
+    BoxCatalog boxCatalog = boxCatalogs.current();
+    PackingWorkspace workspace = newWorkspace(options, System.nanoTime());
+    while (orders.hasNext()) {
+      consumer.accept(packSingleOrder(orders.next(), strategy, options, boxCatalog, workspace));
+    }
   }
 
-  private OrderBoxesResponse packSingleOrder(OrderRequest orderRequest) {
-    log.info("Processing order: {}", orderRequest.orderId());
-
-    List<Product> productsToPack = orderRequest.products().stream()
-        .map(pReq -> new Product(
-            pReq.productId(),
-            new Dimension(pReq.dimension().height(), pReq.dimension().width(), pReq.dimension().length())))
-        .sorted(Comparator.comparingLong(Product::volume).reversed())
-        .toList();
-
-    List<OpenBox> currentlyOpenBoxes = new ArrayList<>();
-    List<Product> unpackableProducts = new ArrayList<>();
-
-    productsToPack.forEach(product -> {
-      log.info("Attempting to pack product: {} with volume {} for order {}", product.productId(), product.volume(), orderRequest.orderId());
-      boolean productPlaced = false;
-
-      for (int i = 0; i < currentlyOpenBoxes.size(); i++) {
-        OpenBox openBox = currentlyOpenBoxes.get(i);
-        if (product.volume() <= openBox.remainingVolume() &&
-            product.dimension().canFitInto(openBox.boxType().dimension())) {
-          currentlyOpenBoxes.set(i, openBox.addProduct(product));
-          productPlaced = true;
-          log.info("Product {} for order {} placed in existing box: {}", product.productId(), orderRequest.orderId(), openBox.boxType().name());
-          break;
+  @Override
+  public OrderBoxesResponse amendOrder(OrderAmendmentRequest amendment) {
+    long start = System.nanoTime();
+    PackingWorkspace workspace = new PackingWorkspace();
+    OrderColumns order = OrderAmendments.repack(amendment, boxCatalogs.current(), workspace);
+    metrics.recordOrder(AMENDMENT_METRIC_NAME, order.size(), workspace, System.nanoTime() - start);
+    return PackingOrders.toResponse(amendment.orderId(), order, workspace);
+  }
+
+  @Override
+  public boolean supportsAlgorithm(String algorithm) {
+    return strategies.containsKey(algorithm);
+  }
+
+  private PackingStrategy resolveStrategy(String algorithm) {
+    PackingStrategy strategy = strategies.get(algorithm);
+    if (strategy == null) {
+      throw new UnsupportedPackingAlgorithmException(algorithm);
+    }
+    return strategy;
+  }
+
+  /**
+   * @return a workspace carrying the request deadline, if the options set a time budget.
+   */
+  private static PackingWorkspace newWorkspace(PackingOptions options, long requestStart) {
+    PackingWorkspace workspace = new PackingWorkspace();
+    if (options.timeBudgetMs() != null) {
+      workspace.setDeadline(requestStart + TimeUnit.MILLISECONDS.toNanos(options.timeBudgetMs()));
+    }
+    return workspace;
+  }
+
+  /**
+   * Packs the orders in fixed-size chunks on the packing executor. Each chunk writes into its own
+   * slice of the result array, so the response keeps the request order without any re-sorting.
+   */
+  private List<OrderBoxesResponse> packInParallel(List<OrderRequest> orders, PackingStrategy strategy,
+                                                  PackingOptions options, BoxCatalog boxCatalog, long requestStart) {
+    OrderBoxesResponse[] results = new OrderBoxesResponse[orders.size()];
+    List<CompletableFuture<Void>> chunks = new ArrayList<>();
+    for (int start = 0; start < orders.size(); start += parallelChunkSize) {
+      int from = start;
+      int to = Math.min(start + parallelChunkSize, orders.size());
+      chunks.add(CompletableFuture.runAsync(() -> {
+        PackingWorkspace workspace = newWorkspace(options, requestStart);
+        for (int i = from; i < to; i++) {
+          results[i] = packSingleOrder(orders.get(i), strategy, options, boxCatalog, workspace);
         }
+      }, packingExecutor));
+    }
+    try {
+      CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
       }
+      throw e;
+    }
+    return List.of(results);
+  }
 
-      if (!productPlaced) {
-        BoxType chosenNewBoxType = null;
-        for (BoxType candidateBoxType : availableBoxTypes) {
-          if (product.volume() <= candidateBoxType.volume() &&
-              product.dimension().canFitInto(candidateBoxType.dimension())) {
-            chosenNewBoxType = candidateBoxType;
-            break;
-          }
+  /**
+   * Packs one order with the request strategy, or with the exact strategy when the request did not
+   * choose an algorithm and the order has at most {@code packing.exact.auto-max-items} products.
+   */
+  private OrderBoxesResponse packSingleOrder(OrderRequest orderRequest, PackingStrategy requestStrategy,
+                                             PackingOptions options, BoxCatalog boxCatalog,
+                                             PackingWorkspace workspace) {
+    OrderColumns order = OrderColumns.of(orderRequest);
+    PackingStrategy strategy = dispatch(order.size(), requestStrategy, options);
+    long start = System.nanoTime();
+    if (!isTraced(options)) {
+      workspace.reset(boxCatalog);
+      if (!resultCache.enabled()) {
+        strategy.pack(order, boxCatalog, workspace);
+      } else {
+        var fingerprint = PackingResultCache.fingerprint(strategy.name(), boxCatalog, order);
+        if (!resultCache.replay(fingerprint, order, workspace)) {
+          strategy.pack(order, boxCatalog, workspace);
+          resultCache.store(fingerprint, workspace);
         }
+      }
+      metrics.recordOrder(strategy.name(), order.size(), workspace, System.nanoTime() - start);
+      return PackingOrders.toResponse(orderRequest.orderId(), order, workspace);
+    }
 
-        if (chosenNewBoxType != null) {
-          OpenBox newBox = new OpenBox(chosenNewBoxType, new ArrayList<>(), chosenNewBoxType.volume());
-          currentlyOpenBoxes.add(newBox.addProduct(product));
-          log.info("Product {} for order {} placed in new box: {}", product.productId(), orderRequest.orderId(), chosenNewBoxType.name());
-        } else {
-          log.warn("Product {} (Volume: {}) for order {} could not be placed in any box.", product.productId(), product.volume(), orderRequest.orderId());
-          unpackableProducts.add(product);
-        }
+    workspace.reset(boxCatalog, new PackingTrace());
+    strategy.pack(order, boxCatalog, workspace);
+    long elapsedNanos = System.nanoTime() - start;
+    metrics.recordOrder(strategy.name(), order.size(), workspace, elapsedNanos);
+    log.debug("Traced order {} with strategy {} in {} us.", orderRequest.orderId(), strategy.name(), elapsedNanos / 1_000);
+    return PackingOrders.toResponse(orderRequest.orderId(), order, workspace,
+        PackingOrders.toTraceResponse(strategy.name(), elapsedNanos, order, workspace));
+  }
+
+  /**
+   * @return the exact strategy for orders of at most {@code packing.exact.auto-max-items} products
+   * when the request did not choose an algorithm and the default one is volume-only, the request
+   * strategy otherwise.
+   */
+  private PackingStrategy dispatch(int orderSize, PackingStrategy requestStrategy, PackingOptions options) {
+    return smallOrderStrategy != null && options.algorithm() == null && orderSize <= smallOrderMaxItems ?
+        smallOrderStrategy :
+        requestStrategy;
+  }
+
+  /**
+   * @return the name of the strategy that packed the orders of a request, or both names joined by
+   * {@code +} when only some of its orders were dispatched to the exact strategy.
+   */
+  private String dispatchedStrategyName(List<OrderRequest> orders, PackingStrategy requestStrategy,
+                                        PackingOptions options) {
+    if (orders.isEmpty()) {
+      return requestStrategy.name();
+    }
+    PackingStrategy first = dispatch(orders.getFirst().products().size(), requestStrategy, options);
+    for (OrderRequest order : orders) {
+      if (dispatch(order.products().size(), requestStrategy, options) != first) {
+        return smallOrderStrategy.name() + "+" + requestStrategy.name();
       }
-    });
-
-    List<PackedBoxResponse> packedBoxesShipment = currentlyOpenBoxes.stream()
-        .map(openBox -> new PackedBoxResponse(
-            openBox.boxType().name(),
-            openBox.packedProducts().stream()
-                .map(Product::productId)
-                .collect(Collectors.toList()),
-            null
-        ))
-        .toList();
-
-    List<PackedBoxResponse> finalBoxes = new ArrayList<>(packedBoxesShipment);
-
-    if (!unpackableProducts.isEmpty()) {
-      String observationMessage = unpackableProducts.size() == 1 ?
-          "Product does not fit in any available box." :
-          "These products do not fit into any available boxes.";
-
-      finalBoxes.add(new PackedBoxResponse(
-          null,
-          unpackableProducts.stream().map(Product::productId).collect(Collectors.toList()),
-          observationMessage
-      ));
-      log.info("{} unpackable product(s) for order {} added to special entry.", unpackableProducts.size(), orderRequest.orderId());
     }
+    return first.name();
+  }
 
-    log.info("Finished processing order: {}. Used {} boxes.", orderRequest.orderId(), finalBoxes.size());
-    return new OrderBoxesResponse(orderRequest.orderId(), finalBoxes);
+  private boolean isTraced(PackingOptions options) {
+    return options.trace() || (traceSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < traceSampleRate);
   }
 }
@@ -0,0 +1,103 @@
+package dev.genro.luan.packing_test.domain.service;
+
+import dev.genro.luan.packing_test.interfaces.dto.OrderBoxesResponse;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An asynchronous packing request and its progress. The worker appends each packed order as soon as
+ * it is done; readers on other threads see a consistent prefix of the results at any time, since a
+ * result is written before the volatile count that publishes it.
+ */
+public final class PackingJob {
+
+  public enum Status {
+    QUEUED, RUNNING, COMPLETED, FAILED
+  }
+
+  private final String id;
+  private final Instant submittedAt;
+  private final OrderBoxesResponse[] results;
+  private volatile int packedOrders;
+  private volatile Status status = Status.QUEUED;
+  private volatile Instant finishedAt;
+  private volatile String error;
+
+  PackingJob(String id, int totalOrders, Instant submittedAt) {
+    this.id = id;
+    this.submittedAt = submittedAt;
+    this.results = new OrderBoxesResponse[totalOrders];
+  }
+
+  public String id() {
+    return id;
+  }
+
+  public Status status() {
+    return status;
+  }
+
+  public boolean finished() {
+    Status current = status;
+    return current == Status.COMPLETED || current == Status.FAILED;
+  }
+
+  public int totalOrders() {
+    return results.length;
+  }
+
+  public int packedOrders() {
+    return packedOrders;
+  }
+
+  public Instant submittedAt() {
+    return submittedAt;
+  }
+
+  /**
+   * @return when the job completed or failed, null while it is queued or running.
+   */
+  public Instant finishedAt() {
+    return finishedAt;
+  }
+
+  /**
+   * @return why the job failed, null unless its status is {@link Status#FAILED}.
+   */
+  public String error() {
+    return error;
+  }
+
+  /**
+   * @return the orders packed so far, in request order.
+   */
+  public List<OrderBoxesResponse> results() {
+    return List.of(Arrays.copyOf(results, packedOrders));
+  }
+
+  void start() {
+    status = Status.RUNNING;
+  }
+
+  /**
+   * Only called by the worker running the job.
+   */
+  void add(OrderBoxesResponse result) {
+    int packed = packedOrders;
+    results[packed] = result;
+    packedOrders = packed + 1;
+  }
+
+  void complete(Instant now) {
+    finishedAt = now;
+    status = Status.COMPLETED;
+  }
+
+  void fail(String message, Instant now) {
+    error = message;
+    finishedAt = now;
+    status = Status.FAILED;
+  }
+}
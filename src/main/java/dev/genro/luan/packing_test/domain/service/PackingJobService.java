@@ -0,0 +1,79 @@
+package dev.genro.luan.packing_test.domain.service;
+
+import dev.genro.luan.packing_test.exception.PackingJobRejectedException;
+import dev.genro.luan.packing_test.exception.UnsupportedPackingAlgorithmException;
+import dev.genro.luan.packing_test.interfaces.dto.PackageOrderRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs packing requests in the background. Each job is packed order by order on the
+ * {@code packingJobExecutor} pool, so its results can be read while it runs; when the pool queue is
+ * full the job is rejected right away instead of waiting.
+ */
+@Service
+public class PackingJobService {
+
+  private static final Logger log = LoggerFactory.getLogger(PackingJobService.class);
+  private final PackagingService packagingService;
+  private final ExecutorService jobExecutor;
+  private final PackingJobStore store;
+
+  public PackingJobService(PackagingService packagingService,
+                           @Qualifier("packingJobExecutor") ExecutorService jobExecutor,
+                           PackingJobStore store) {
+    this.packagingService = packagingService;
+    this.jobExecutor = jobExecutor;
+    this.store = store;
+  }
+
+  /**
+   * Queues the request and returns its job without waiting for any order to be packed.
+   *
+   * @throws UnsupportedPackingAlgorithmException if the options name an unknown algorithm.
+   * @throws PackingJobRejectedException          if the job queue is full.
+   */
+  public PackingJob submit(PackageOrderRequest request, PackingOptions options) {
+    if (options.algorithm() != null && !packagingService.supportsAlgorithm(options.algorithm())) {
+      throw new UnsupportedPackingAlgorithmException(options.algorithm());
+    }
+    PackingJob job = new PackingJob(UUID.randomUUID().toString(), request.orders().size(), Instant.now());
+    store.admit(job);
+    try {
+      jobExecutor.execute(() -> run(job, request, options));
+    } catch (RejectedExecutionException e) {
+      store.remove(job.id());
+      throw new PackingJobRejectedException();
+    }
+    log.debug("Queued packing job {} with {} orders.", job.id(), job.totalOrders());
+    return job;
+  }
+
+  public Optional<PackingJob> find(String id) {
+    return store.find(id);
+  }
+
+  private void run(PackingJob job, PackageOrderRequest request, PackingOptions options) {
+    job.start();
+    try {
+      packagingService.packOrderStream(request.orders().iterator(), options, job::add);
+      job.complete(Instant.now());
+    } catch (Throwable e) {
+      log.error("Packing job {} failed after {} of {} orders.", job.id(), job.packedOrders(), job.totalOrders(), e);
+      job.fail(e.getMessage(), Instant.now());
+      if (e instanceof Error error) {
+        throw error;
+      }
+    } finally {
+      store.finish(job);
+    }
+  }
+}
@@ -0,0 +1,72 @@
+package dev.genro.luan.packing_test.domain.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory home of the asynchronous packing jobs. Queued and running jobs are kept until they
+ * finish and are never evicted, so a client holding an accepted job can always poll it; how many of
+ * them there are is bounded by the job pool and its queue. A finished job stays until
+ * {@code packing.jobs.ttl-ms} after it finished, then is evicted with its results, and finished jobs
+ * are evicted early when more than {@code packing.jobs.max-jobs} of them are kept.
+ */
+@Component
+public class PackingJobStore {
+
+  private final Map<String, PackingJob> liveJobs = new ConcurrentHashMap<>();
+  private final Cache<String, PackingJob> finishedJobs;
+
+  @Autowired
+  public PackingJobStore(@Value("${packing.jobs.ttl-ms:600000}") long ttlMs,
+                         @Value("${packing.jobs.max-jobs:10000}") long maxJobs) {
+    this(ttlMs, maxJobs, Ticker.systemTicker());
+  }
+
+  PackingJobStore(long ttlMs, long maxJobs, Ticker ticker) {
+    this.finishedJobs = Caffeine.newBuilder()
+        .maximumSize(maxJobs)
+        .expireAfterWrite(ttlMs, TimeUnit.MILLISECONDS)
+        .ticker(ticker)
+        .build();
+  }
+
+  /**
+   * Stores a job that has not finished yet.
+   */
+  void admit(PackingJob job) {
+    liveJobs.put(job.id(), job);
+  }
+
+  /**
+   * Moves a finished job to the finished jobs, which starts its time to live.
+   */
+  void finish(PackingJob job) {
+    finishedJobs.put(job.id(), job);
+    remove(job.id());
+  }
+
+  /**
+   * Drops a job that was admitted but never ran.
+   */
+  void remove(String id) {
+    liveJobs.remove(id);
+  }
+
+  public Optional<PackingJob> find(String id) {
+    PackingJob job = liveJobs.get(id);
+    return Optional.ofNullable(job != null ? job : finishedJobs.getIfPresent(id));
+  }
+
+  public long size() {
+    return liveJobs.size() + finishedJobs.estimatedSize();
+  }
+}
@@ -0,0 +1,131 @@
+package dev.genro.luan.packing_test.domain.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and quality meters of the packing service, exported by the Actuator Prometheus
+ * endpoint. Meters are tagged by strategy, and box fill ratios by box type; both sets are small
+ * and fixed by configuration, so the meters are looked up once and kept in maps instead of going
+ * through the registry for every order. The maps are read without locking; only the first use of a
+ * strategy or box type takes the lock of {@link ConcurrentHashMap#computeIfAbsent}.
+ */
+@Component
+public class PackingMetrics {
+
+  private final MeterRegistry registry;
+  private final Map<String, StrategyMeters> strategyMeters = new ConcurrentHashMap<>();
+  private final Map<String, DistributionSummary> boxFill = new ConcurrentHashMap<>();
+
+  public PackingMetrics(MeterRegistry registry) {
+    this.registry = registry;
+  }
+
+  /**
+   * Metrics backed by a registry without any exporter, whose meters record nothing.
+   */
+  public static PackingMetrics disabled() {
+    return new PackingMetrics(new CompositeMeterRegistry());
+  }
+
+  void recordRequest(String strategy, int orders, long elapsedNanos) {
+    StrategyMeters meters = meters(strategy);
+    meters.requestDuration.record(elapsedNanos, TimeUnit.NANOSECONDS);
+    meters.requestOrders.record(orders);
+  }
+
+  /**
+   * Records one packed order from the workspace holding its layout.
+   */
+  void recordOrder(String strategy, int products, PackingWorkspace workspace, long elapsedNanos) {
+    StrategyMeters meters = meters(strategy);
+    meters.orderDuration.record(elapsedNanos, TimeUnit.NANOSECONDS);
+    meters.orderProducts.record(products);
+    meters.orderBoxes.record(workspace.boxCount());
+    int unpackable = workspace.unpackableCount();
+    meters.packedProducts.increment(products - unpackable);
+    if (unpackable > 0) {
+      meters.unpackableProducts.increment(unpackable);
+    }
+    for (int boxIndex = 0; boxIndex < workspace.boxCount(); boxIndex++) {
+      long volume = workspace.boxType(boxIndex).volume();
+      boxFill(workspace.boxType(boxIndex).name())
+          .record((double) (volume - workspace.remainingVolume(boxIndex)) / volume);
+    }
+  }
+
+  private StrategyMeters meters(String strategy) {
+    StrategyMeters meters = strategyMeters.get(strategy);
+    return meters != null ? meters : strategyMeters.computeIfAbsent(strategy, name -> new StrategyMeters(registry, name));
+  }
+
+  private DistributionSummary boxFill(String boxName) {
+    DistributionSummary summary = boxFill.get(boxName);
+    if (summary != null) {
+      return summary;
+    }
+    return boxFill.computeIfAbsent(boxName, name -> DistributionSummary.builder("packing.box.fill")
+        .description("Fraction of the box volume used by its products")
+        .tag("box", name)
+        .publishPercentileHistogram()
+        .minimumExpectedValue(0.01)
+        .maximumExpectedValue(1.0)
+        .register(registry));
+  }
+
+  private static final class StrategyMeters {
+    private final Timer requestDuration;
+    private final DistributionSummary requestOrders;
+    private final Timer orderDuration;
+    private final DistributionSummary orderProducts;
+    private final DistributionSummary orderBoxes;
+    private final Counter packedProducts;
+    private final Counter unpackableProducts;
+
+    private StrategyMeters(MeterRegistry registry, String strategy) {
+      this.requestDuration = Timer.builder("packing.request")
+          .description("Time to pack all the orders of a request")
+          .tag("strategy", strategy)
+          .publishPercentileHistogram()
+          .register(registry);
+      this.requestOrders = DistributionSummary.builder("packing.request.orders")
+          .description("Orders per request")
+          .tag("strategy", strategy)
+          .publishPercentileHistogram()
+          .register(registry);
+      this.orderDuration = Timer.builder("packing.order")
+          .description("Time to pack one order, including result cache lookups")
+          .tag("strategy", strategy)
+          .publishPercentileHistogram()
+          .register(registry);
+      this.orderProducts = DistributionSummary.builder("packing.order.products")
+          .description("Products per order")
+          .tag("strategy", strategy)
+          .publishPercentileHistogram()
+          .register(registry);
+      this.orderBoxes = DistributionSummary.builder("packing.order.boxes")
+          .description("Boxes opened per order")
+          .tag("strategy", strategy)
+          .publishPercentileHistogram()
+          .register(registry);
+      this.packedProducts = Counter.builder("packing.products")
+          .description("Products packed into a box or found unpackable")
+          .tag("strategy", strategy)
+          .tag("outcome", "packed")
+          .register(registry);
+      this.unpackableProducts = Counter.builder("packing.products")
+          .description("Products packed into a box or found unpackable")
+          .tag("strategy", strategy)
+          .tag("outcome", "unpackable")
+          .register(registry);
+    }
+  }
+}
@@ -0,0 +1,20 @@
+package dev.genro.luan.packing_test.domain.service;
+
+/**
+ * Per-request packing settings.
+ *
+ * @param algorithm    name of the {@link PackingStrategy} to use, or null for the configured default.
+ * @param trace        whether every order of the request records a placement trace in its response.
+ * @param timeBudgetMs time the whole request may spend improving its layouts, for strategies that
+ *                     search until a deadline, or null for their configured budget.
+ */
+public record PackingOptions(String algorithm, boolean trace, Long timeBudgetMs) {
+
+  public PackingOptions(String algorithm, boolean trace) {
+    this(algorithm, trace, null);
+  }
+
+  public static PackingOptions defaults() {
+    return new PackingOptions(null, false);
+  }
+}
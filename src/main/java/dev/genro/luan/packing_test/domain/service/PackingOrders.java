@@ -0,0 +1,73 @@
+package dev.genro.luan.packing_test.domain.service;
+
+import dev.genro.luan.packing_test.interfaces.dto.OptimizationResponse;
+import dev.genro.luan.packing_test.interfaces.dto.OrderBoxesResponse;
+import dev.genro.luan.packing_test.interfaces.dto.PackedBoxResponse;
+import dev.genro.luan.packing_test.interfaces.dto.PackingTraceResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Conversions shared by the packing engines from a filled {@link PackingWorkspace} back into the
+ * API response, joining the product ids of the {@link OrderColumns} back in.
+ */
+final class PackingOrders {
+
+  private PackingOrders() {
+  }
+
+  static OrderBoxesResponse toResponse(Integer orderId, OrderColumns order, PackingWorkspace workspace) {
+    return toResponse(orderId, order, workspace, null);
+  }
+
+  /**
+   * @param trace rendered placement trace to attach, or null when the order was not traced.
+   */
+  static OrderBoxesResponse toResponse(Integer orderId, OrderColumns order, PackingWorkspace workspace,
+                                       PackingTraceResponse trace) {
+    List<PackedBoxResponse> finalBoxes = new ArrayList<>(workspace.boxCount() + 1);
+    for (int boxIndex = 0; boxIndex < workspace.boxCount(); boxIndex++) {
+      List<String> productIds = new ArrayList<>(workspace.productCount(boxIndex));
+      for (int position = 0; position < workspace.productCount(boxIndex); position++) {
+        productIds.add(order.productId(workspace.productAt(boxIndex, position)));
+      }
+      finalBoxes.add(new PackedBoxResponse(workspace.boxType(boxIndex).name(), productIds, null));
+    }
+
+    int unpackableCount = workspace.unpackableCount();
+    if (unpackableCount > 0) {
+      String observationMessage = unpackableCount == 1 ?
+          "Product does not fit in any available box." :
+          "These products do not fit into any available boxes.";
+
+      List<String> unpackableIds = new ArrayList<>(unpackableCount);
+      for (int position = 0; position < unpackableCount; position++) {
+        unpackableIds.add(order.productId(workspace.unpackableAt(position)));
+      }
+      finalBoxes.add(new PackedBoxResponse(null, unpackableIds, observationMessage));
+    }
+    OptimizationResponse optimization = workspace.searched() ?
+        new OptimizationResponse(workspace.boxesSaved(), workspace.searchCompleted()) :
+        null;
+    return new OrderBoxesResponse(orderId, finalBoxes, trace, optimization);
+  }
+
+  static PackingTraceResponse toTraceResponse(String strategy, long elapsedNanos, OrderColumns order,
+                                              PackingWorkspace workspace) {
+    PackingTrace trace = workspace.trace();
+    List<PackingTraceResponse.Event> events = new ArrayList<>(trace.size());
+    for (int event = 0; event < trace.size(); event++) {
+      int boxIndex = trace.boxIndex(event);
+      int operand = trace.operand(event);
+      events.add(switch (trace.type(event)) {
+        case PackingTrace.OPENED -> new PackingTraceResponse.Event("opened", boxIndex,
+            workspace.boxType(boxIndex).name(), null);
+        case PackingTrace.PLACED -> new PackingTraceResponse.Event("placed", boxIndex,
+            null, order.productId(operand));
+        default -> new PackingTraceResponse.Event("unpackable", null, null, order.productId(operand));
+      });
+    }
+    return new PackingTraceResponse(strategy, elapsedNanos / 1_000, events);
+  }
+}
@@ -0,0 +1,165 @@
+package dev.genro.luan.packing_test.domain.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import dev.genro.luan.packing_test.domain.model.BoxCatalog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * Packing results of previously seen orders, keyed by an order fingerprint: the strategy, the box
+ * catalog and the canonical dimensions and weights of the products in packing order. Two orders with the same
+ * fingerprint only differ by product ids and rotations, so the cached layout, which refers to
+ * products by position, is replayed into the workspace and relabeled with the incoming products.
+ * <p>
+ * Layouts that a time or node budget cut short, which strategies report on the workspace, are not
+ * stored, since a later attempt may do better; completed searches are replayed together with their
+ * outcome.
+ * <p>
+ * The cache is size-bounded with Caffeine's TinyLFU eviction and records hit and miss statistics.
+ * A maximum size of 0 disables it.
+ */
+@Component
+public class PackingResultCache {
+
+  private final Cache<OrderFingerprint, PackedLayout> layouts;
+
+  public PackingResultCache(@Value("${packing.result-cache.max-size:10000}") long maxSize) {
+    this.layouts = maxSize > 0 ?
+        Caffeine.newBuilder().maximumSize(maxSize).recordStats().build() :
+        null;
+  }
+
+  public static PackingResultCache disabled() {
+    return new PackingResultCache(0);
+  }
+
+  public boolean enabled() {
+    return layouts != null;
+  }
+
+  public CacheStats stats() {
+    return layouts != null ? layouts.stats() : CacheStats.empty();
+  }
+
+  public long size() {
+    return layouts != null ? layouts.estimatedSize() : 0;
+  }
+
+  /**
+   * Replays the cached layout of an identical order into the workspace.
+   *
+   * @return false on a miss, leaving the workspace untouched.
+   */
+  boolean replay(OrderFingerprint fingerprint, OrderColumns order, PackingWorkspace workspace) {
+    PackedLayout layout = layouts.getIfPresent(fingerprint);
+    if (layout == null) {
+      return false;
+    }
+    layout.replay(order, workspace);
+    return true;
+  }
+
+  void store(OrderFingerprint fingerprint, PackingWorkspace workspace) {
+    if (workspace.budgetExceeded()) {
+      return;
+    }
+    layouts.put(fingerprint, PackedLayout.of(workspace));
+  }
+
+  static OrderFingerprint fingerprint(String strategy, BoxCatalog catalog, OrderColumns order) {
+    int[] sides = new int[order.size() * 4];
+    for (int i = 0; i < order.size(); i++) {
+      sides[i * 4] = order.smallestSide(i);
+      sides[i * 4 + 1] = order.middleSide(i);
+      sides[i * 4 + 2] = order.largestSide(i);
+      sides[i * 4 + 3] = order.weight(i);
+    }
+    return new OrderFingerprint(strategy, catalog, sides);
+  }
+
+  /**
+   * The catalog is compared by identity: a new box configuration is a new catalog, so results
+   * computed for a previous one are never returned and age out of the cache.
+   */
+  static final class OrderFingerprint {
+    private final String strategy;
+    private final BoxCatalog catalog;
+    private final int[] sides;
+    private final int hash;
+
+    private OrderFingerprint(String strategy, BoxCatalog catalog, int[] sides) {
+      this.strategy = strategy;
+      this.catalog = catalog;
+      this.sides = sides;
+      this.hash = 31 * (31 * strategy.hashCode() + System.identityHashCode(catalog)) + Arrays.hashCode(sides);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof OrderFingerprint that
+          && hash == that.hash
+          && catalog == that.catalog
+          && strategy.equals(that.strategy)
+          && Arrays.equals(sides, that.sides);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
+  /**
+   * Box types and product positions of a packed order, in the flat form the workspace holds them.
+   */
+  private record PackedLayout(int[] boxTypeIndexes, int[] boxEnds, int[] productIndexes, int[] unpackable,
+                              int boxesSaved) {
+
+    static PackedLayout of(PackingWorkspace workspace) {
+      int boxCount = workspace.boxCount();
+      int[] boxTypeIndexes = new int[boxCount];
+      int[] boxEnds = new int[boxCount];
+      int total = 0;
+      for (int box = 0; box < boxCount; box++) {
+        total += workspace.productCount(box);
+      }
+      int[] productIndexes = new int[total];
+      int next = 0;
+      for (int box = 0; box < boxCount; box++) {
+        boxTypeIndexes[box] = workspace.boxTypeIndex(box);
+        for (int position = 0; position < workspace.productCount(box); position++) {
+          productIndexes[next++] = workspace.productAt(box, position);
+        }
+        boxEnds[box] = next;
+      }
+      int[] unpackable = new int[workspace.unpackableCount()];
+      for (int position = 0; position < unpackable.length; position++) {
+        unpackable[position] = workspace.unpackableAt(position);
+      }
+      return new PackedLayout(boxTypeIndexes, boxEnds, productIndexes, unpackable,
+          workspace.searched() ? workspace.boxesSaved() : -1);
+    }
+
+    void replay(OrderColumns order, PackingWorkspace workspace) {
+      int start = 0;
+      for (int box = 0; box < boxTypeIndexes.length; box++) {
+        int boxIndex = workspace.openBox(boxTypeIndexes[box]);
+        for (int i = start; i < boxEnds[box]; i++) {
+          int productIndex = productIndexes[i];
+          workspace.place(boxIndex, productIndex, order.volume(productIndex), order.weight(productIndex));
+        }
+        start = boxEnds[box];
+      }
+      for (int productIndex : unpackable) {
+        workspace.markUnpackable(productIndex);
+      }
+      if (boxesSaved >= 0) {
+        workspace.recordSearch(boxesSaved, true);
+      }
+    }
+  }
+}
@@ -0,0 +1,26 @@
+package dev.genro.luan.packing_test.domain.service;
+
+import dev.genro.luan.packing_test.domain.model.BoxCatalog;
+
+/**
+ * Algorithm that assigns the products of one order to boxes. Every Spring bean implementing this
+ * interface is available to {@link PackagingServiceImpl} under its {@link #name()}, which callers
+ * use to pick it per request.
+ */
+public interface PackingStrategy {
+
+  /**
+   * @return the identifier callers use to select this strategy, e.g. {@code first-fit-decreasing}.
+   */
+  String name();
+
+  /**
+   * Packs one order. Implementations open boxes and place products in the workspace, which has
+   * already been reset, and mark the products that fit no box as unpackable.
+   *
+   * @param order     the products of the order, sorted by volume in descending order.
+   * @param catalog   the box types that may be opened.
+   * @param workspace receives the resulting assignment, with products referenced by their position in the order.
+   */
+  void pack(OrderColumns order, BoxCatalog catalog, PackingWorkspace workspace);
+}
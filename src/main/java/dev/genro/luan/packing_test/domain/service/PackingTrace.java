@@ -0,0 +1,64 @@
+package dev.genro.luan.packing_test.domain.service;
+
+import java.util.Arrays;
+
+/**
+ * Compact record of the placement decisions taken while packing one order. Each event is stored as
+ * three ints (type, first operand, second operand) in a growing array, so tracing costs an append
+ * per decision and no formatting until the trace is rendered into the response.
+ */
+final class PackingTrace {
+
+  static final int OPENED = 0;
+  static final int PLACED = 1;
+  static final int UNPACKABLE = 2;
+
+  private int[] events = new int[3 * 16];
+  private int size;
+
+  void opened(int boxIndex, int boxTypeIndex) {
+    append(OPENED, boxIndex, boxTypeIndex);
+  }
+
+  void placed(int boxIndex, int productIndex) {
+    append(PLACED, boxIndex, productIndex);
+  }
+
+  void unpackable(int productIndex) {
+    append(UNPACKABLE, -1, productIndex);
+  }
+
+  void clear() {
+    size = 0;
+  }
+
+  int size() {
+    return size;
+  }
+
+  int type(int event) {
+    return events[event * 3];
+  }
+
+  int boxIndex(int event) {
+    return events[event * 3 + 1];
+  }
+
+  /**
+   * @return the box type index for {@link #OPENED} events, the product index otherwise.
+   */
+  int operand(int event) {
+    return events[event * 3 + 2];
+  }
+
+  private void append(int type, int boxIndex, int operand) {
+    if (size * 3 == events.length) {
+      events = Arrays.copyOf(events, events.length * 2);
+    }
+    int base = size * 3;
+    events[base] = type;
+    events[base + 1] = boxIndex;
+    events[base + 2] = operand;
+    size++;
+  }
+}
@@ -0,0 +1,223 @@
+package dev.genro.luan.packing_test.domain.service;
+
+import dev.genro.luan.packing_test.domain.model.BoxCatalog;
+import dev.genro.luan.packing_test.domain.model.BoxType;
+
+import java.util.Arrays;
+
+/**
+ * Mutable packing state for one order at a time. Boxes are referenced by position and products by
+ * their index in the sorted product array, so placing a product only bumps primitive fields.
+ * The box accumulators and index arrays are kept across {@link #reset()} calls, which lets a single
+ * workspace pack a whole batch of orders without allocating per placement.
+ * Box types are referenced by their position in the {@link BoxCatalog} the workspace was reset with.
+ * When a {@link PackingTrace} is attached, every open, place and unpackable decision is also appended
+ * to it; without one the only cost is a null check.
+ * <p>
+ * Strategies that search until a deadline read it from {@link #deadline()} when the request set one,
+ * and report how their search went with {@link #recordSearch(int, boolean)}.
+ */
+public final class PackingWorkspace {
+
+  private BoxCatalog catalog;
+  private OpenBox[] boxes = new OpenBox[4];
+  private int boxCount;
+  private int[] unpackableProducts = new int[4];
+  private int unpackableCount;
+  private PackingTrace trace;
+  private boolean hasDeadline;
+  private long deadline;
+  private int boxesSaved = -1;
+  private boolean searchCompleted;
+  private boolean budgetExceeded;
+
+  void reset(BoxCatalog catalog) {
+    reset(catalog, null);
+  }
+
+  void reset(BoxCatalog catalog, PackingTrace trace) {
+    this.catalog = catalog;
+    this.trace = trace;
+    clear();
+  }
+
+  /**
+   * Discards the boxes placed so far but keeps the catalog and trace, for strategies that restart
+   * an order from scratch.
+   */
+  void clear() {
+    if (trace != null) {
+      trace.clear();
+    }
+    for (int i = 0; i < boxCount; i++) {
+      boxes[i].clear();
+    }
+    boxCount = 0;
+    unpackableCount = 0;
+    boxesSaved = -1;
+    searchCompleted = false;
+    budgetExceeded = false;
+  }
+
+  /**
+   * Sets the {@link System#nanoTime()} by which searching strategies must stop, kept across resets
+   * so that every order of a request shares it.
+   */
+  void setDeadline(long deadline) {
+    this.deadline = deadline;
+    this.hasDeadline = true;
+  }
+
+  public boolean hasDeadline() {
+    return hasDeadline;
+  }
+
+  /**
+   * @return the {@link System#nanoTime()} deadline, only meaningful when {@link #hasDeadline()}.
+   */
+  public long deadline() {
+    return deadline;
+  }
+
+  /**
+   * Reports the outcome of an improvement search over the layout placed in the workspace.
+   *
+   * @param boxesSaved boxes the search removed from its starting layout.
+   * @param completed  false if the deadline stopped the search before it ran out of improvements.
+   */
+  public void recordSearch(int boxesSaved, boolean completed) {
+    this.boxesSaved = boxesSaved;
+    this.searchCompleted = completed;
+    if (!completed) {
+      budgetExceeded = true;
+    }
+  }
+
+  /**
+   * Records that a time or node budget stopped the strategy before it finished, so the layout in
+   * the workspace is not necessarily the one it would settle on given more time.
+   */
+  public void markBudgetExceeded() {
+    budgetExceeded = true;
+  }
+
+  boolean budgetExceeded() {
+    return budgetExceeded;
+  }
+
+  boolean searched() {
+    return boxesSaved >= 0;
+  }
+
+  int boxesSaved() {
+    return boxesSaved;
+  }
+
+  boolean searchCompleted() {
+    return searchCompleted;
+  }
+
+  public int openBox(int boxTypeIndex) {
+    if (boxCount == boxes.length) {
+      boxes = Arrays.copyOf(boxes, boxCount * 2);
+    }
+    OpenBox box = boxes[boxCount];
+    if (box == null) {
+      box = new OpenBox();
+      boxes[boxCount] = box;
+    }
+    box.boxTypeIndex = boxTypeIndex;
+    box.remainingVolume = catalog.get(boxTypeIndex).volume();
+    box.remainingWeight = catalog.get(boxTypeIndex).weightCapacity();
+    if (trace != null) {
+      trace.opened(boxCount, boxTypeIndex);
+    }
+    return boxCount++;
+  }
+
+  public void place(int boxIndex, int productIndex, long productVolume, long productWeight) {
+    OpenBox box = boxes[boxIndex];
+    box.add(productIndex);
+    box.remainingVolume -= productVolume;
+    box.remainingWeight -= productWeight;
+    if (trace != null) {
+      trace.placed(boxIndex, productIndex);
+    }
+  }
+
+  public void markUnpackable(int productIndex) {
+    if (unpackableCount == unpackableProducts.length) {
+      unpackableProducts = Arrays.copyOf(unpackableProducts, unpackableCount * 2);
+    }
+    unpackableProducts[unpackableCount++] = productIndex;
+    if (trace != null) {
+      trace.unpackable(productIndex);
+    }
+  }
+
+  public int boxCount() {
+    return boxCount;
+  }
+
+  public int boxTypeIndex(int boxIndex) {
+    return boxes[boxIndex].boxTypeIndex;
+  }
+
+  public BoxType boxType(int boxIndex) {
+    return catalog.get(boxes[boxIndex].boxTypeIndex);
+  }
+
+  public long remainingVolume(int boxIndex) {
+    return boxes[boxIndex].remainingVolume;
+  }
+
+  /**
+   * @return the weight the box can still carry, {@link Long#MAX_VALUE} or close to it when its
+   * type has no weight limit.
+   */
+  public long remainingWeight(int boxIndex) {
+    return boxes[boxIndex].remainingWeight;
+  }
+
+  public int productCount(int boxIndex) {
+    return boxes[boxIndex].size;
+  }
+
+  public int productAt(int boxIndex, int position) {
+    return boxes[boxIndex].productIndexes[position];
+  }
+
+  public int unpackableCount() {
+    return unpackableCount;
+  }
+
+  public int unpackableAt(int position) {
+    return unpackableProducts[position];
+  }
+
+  PackingTrace trace() {
+    return trace;
+  }
+
+  private static final class OpenBox {
+    private int boxTypeIndex;
+    private long remainingVolume;
+    private long remainingWeight;
+    private int[] productIndexes = new int[8];
+    private int size;
+
+    private void add(int productIndex) {
+      if (size == productIndexes.length) {
+        productIndexes = Arrays.copyOf(productIndexes, size * 2);
+      }
+      productIndexes[size++] = productIndex;
+    }
+
+    private void clear() {
+      boxTypeIndex = -1;
+      remainingVolume = 0;
+      remainingWeight = 0;
+      size = 0;
+    }
+  }
+}
@@ -0,0 +1,84 @@
+package dev.genro.luan.packing_test.domain.service;
+
+import dev.genro.luan.packing_test.domain.model.BoxCatalog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Packs orders with real 3D placement: every open box tracks the position and orientation of its
+ * items, so a product only joins a box when it physically fits next to what is already inside.
+ * <p>
+ * Each order has a time budget. Once it is spent the remaining products skip the search over every
+ * open box: each one is only tried in the last box opened, and goes into a new box when it does not
+ * fit there, so the layout stays physically valid whatever the budget.
+ */
+@Component
+public class SpatialPackingStrategy implements PackingStrategy {
+
+  public static final String NAME = "spatial";
+  private static final Logger log = LoggerFactory.getLogger(SpatialPackingStrategy.class);
+  private final long timeBudgetNanos;
+
+  public SpatialPackingStrategy(@Value("${packing.spatial.time-budget-ms:50}") long timeBudgetMs) {
+    this.timeBudgetNanos = TimeUnit.MILLISECONDS.toNanos(timeBudgetMs);
+  }
+
+  @Override
+  public String name() {
+    return NAME;
+  }
+
+  @Override
+  public void pack(OrderColumns order, BoxCatalog catalog, PackingWorkspace workspace) {
+    List<ExtremePointBox> openBoxes = new ArrayList<>();
+    long deadline = System.nanoTime() + timeBudgetNanos;
+    boolean budgetExceeded = false;
+
+    for (int productIndex = 0; productIndex < order.size(); productIndex++) {
+      if (!budgetExceeded && System.nanoTime() - deadline >= 0) {
+        budgetExceeded = true;
+      }
+
+      long productVolume = order.volume(productIndex);
+      long productWeight = order.weight(productIndex);
+      int height = order.height(productIndex);
+      int width = order.width(productIndex);
+      int length = order.length(productIndex);
+      boolean productPlaced = false;
+
+      for (int boxIndex = budgetExceeded ? Math.max(0, openBoxes.size() - 1) : 0; boxIndex < openBoxes.size();
+           boxIndex++) {
+        if (productWeight <= workspace.remainingWeight(boxIndex) &&
+            openBoxes.get(boxIndex).tryPlace(height, width, length, productVolume)) {
+          workspace.place(boxIndex, productIndex, productVolume, productWeight);
+          productPlaced = true;
+          break;
+        }
+      }
+
+      if (!productPlaced) {
+        int newBoxType = catalog.smallestFittingIndex(order.compatibility(productIndex, catalog), productWeight);
+        if (newBoxType >= 0) {
+          ExtremePointBox newBox = new ExtremePointBox(catalog.get(newBoxType));
+          newBox.tryPlace(height, width, length, productVolume);
+          openBoxes.add(newBox);
+          workspace.place(workspace.openBox(newBoxType), productIndex, productVolume, productWeight);
+        } else {
+          workspace.markUnpackable(productIndex);
+        }
+      }
+    }
+
+    if (budgetExceeded) {
+      workspace.markBudgetExceeded();
+      log.warn("Spatial packing budget of {} ms exceeded; remaining products were only tried in the last open box.",
+          TimeUnit.NANOSECONDS.toMillis(timeBudgetNanos));
+    }
+  }
+}
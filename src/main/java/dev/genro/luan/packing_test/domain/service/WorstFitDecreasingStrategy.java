@@ -0,0 +1,51 @@
+package dev.genro.luan.packing_test.domain.service;
+
+import dev.genro.luan.packing_test.domain.model.BoxCatalog;
+import dev.genro.luan.packing_test.domain.model.BoxCompatibility;
+import org.springframework.stereotype.Component;
+
+/**
+ * Places each product into the open box with the most volume left, which spreads the load evenly
+ * across boxes, opening the smallest box type that fits when no open box has room.
+ */
+@Component
+public class WorstFitDecreasingStrategy implements PackingStrategy {
+
+  public static final String NAME = "worst-fit-decreasing";
+
+  @Override
+  public String name() {
+    return NAME;
+  }
+
+  @Override
+  public void pack(OrderColumns order, BoxCatalog catalog, PackingWorkspace workspace) {
+    for (int productIndex = 0; productIndex < order.size(); productIndex++) {
+      long productVolume = order.volume(productIndex);
+      long productWeight = order.weight(productIndex);
+      BoxCompatibility compatibility = order.compatibility(productIndex, catalog);
+
+      int chosenBox = -1;
+      for (int boxIndex = 0; boxIndex < workspace.boxCount(); boxIndex++) {
+        long remainingVolume = workspace.remainingVolume(boxIndex);
+        if (productVolume <= remainingVolume &&
+            productWeight <= workspace.remainingWeight(boxIndex) &&
+            (chosenBox < 0 || remainingVolume > workspace.remainingVolume(chosenBox)) &&
+            compatibility.fits(workspace.boxTypeIndex(boxIndex))) {
+          chosenBox = boxIndex;
+        }
+      }
+
+      if (chosenBox >= 0) {
+        workspace.place(chosenBox, productIndex, productVolume, productWeight);
+      } else {
+        int newBoxType = catalog.smallestFittingIndex(compatibility, productWeight);
+        if (newBoxType >= 0) {
+          workspace.place(workspace.openBox(newBoxType), productIndex, productVolume, productWeight);
+        } else {
+          workspace.markUnpackable(productIndex);
+        }
+      }
+    }
+  }
+}
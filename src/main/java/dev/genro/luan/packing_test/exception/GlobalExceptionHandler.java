@@ -1,6 +1,10 @@
 package dev.genro.luan.packing_test.exception;
 
+import dev.genro.luan.packing_test.interfaces.dto.ApiErrorResponse;
 import dev.genro.luan.packing_test.interfaces.dto.InputValidationResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.validation.FieldError;
@@ -15,6 +19,12 @@ import java.util.stream.Collectors;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
+
+  /**
+   * Seconds a client rejected for a full job queue is asked to wait before submitting again.
+   */
+  static final String JOB_RETRY_AFTER_SECONDS = "1";
+
   @ExceptionHandler(MethodArgumentNotValidException.class)
   public ResponseEntity<InputValidationResponse> handleMethodArgumentNotValidException(
       MethodArgumentNotValidException e) {
@@ -38,6 +48,12 @@ public class GlobalExceptionHandler {
     return ResponseEntity.badRequest().body(new InputValidationResponse(validations));
   }
 
+  @ExceptionHandler(InvalidPackingRequestException.class)
+  public ResponseEntity<InputValidationResponse> handleInvalidPackingRequestException(
+      InvalidPackingRequestException e) {
+    return ResponseEntity.badRequest().body(new InputValidationResponse(e.validations()));
+  }
+
   @ExceptionHandler(HttpMessageNotReadableException.class)
   public ResponseEntity<InputValidationResponse> handleHttpMessageNotReadableException(
       HttpMessageNotReadableException e) {
@@ -48,4 +64,30 @@ public class GlobalExceptionHandler {
             List.of("Request body informed is invalid, not able to parse as JSON.")));
     return ResponseEntity.badRequest().body(new InputValidationResponse(validationItems));
   }
+
+  @ExceptionHandler(UnsupportedPackingAlgorithmException.class)
+  public ResponseEntity<InputValidationResponse> handleUnsupportedPackingAlgorithmException(
+      UnsupportedPackingAlgorithmException e) {
+    return ResponseEntity.badRequest().body(new InputValidationResponse(List.of(
+        new InputValidationResponse.InputValidationItem("algorithm", List.of(e.getMessage())))));
+  }
+
+  @ExceptionHandler(PackingJobNotFoundException.class)
+  public ResponseEntity<ApiErrorResponse> handlePackingJobNotFoundException(
+      PackingJobNotFoundException e, HttpServletRequest request) {
+    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(apiError(HttpStatus.NOT_FOUND, e, request));
+  }
+
+  @ExceptionHandler(PackingJobRejectedException.class)
+  public ResponseEntity<ApiErrorResponse> handlePackingJobRejectedException(
+      PackingJobRejectedException e, HttpServletRequest request) {
+    return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+        .header(HttpHeaders.RETRY_AFTER, JOB_RETRY_AFTER_SECONDS)
+        .body(apiError(HttpStatus.TOO_MANY_REQUESTS, e, request));
+  }
+
+  private static ApiErrorResponse apiError(HttpStatus status, RuntimeException e, HttpServletRequest request) {
+    return new ApiErrorResponse(System.currentTimeMillis(), status.value(), status.getReasonPhrase(), e.getMessage(),
+        request.getRequestURI());
+  }
 }
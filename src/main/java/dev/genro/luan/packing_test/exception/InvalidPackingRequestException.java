@@ -0,0 +1,19 @@
+package dev.genro.luan.packing_test.exception;
+
+import dev.genro.luan.packing_test.interfaces.dto.InputValidationResponse;
+
+import java.util.List;
+
+public class InvalidPackingRequestException extends RuntimeException {
+
+  private final List<InputValidationResponse.InputValidationItem> validations;
+
+  public InvalidPackingRequestException(List<InputValidationResponse.InputValidationItem> validations) {
+    super("Packing request failed validation on %d fields".formatted(validations.size()));
+    this.validations = validations;
+  }
+
+  public List<InputValidationResponse.InputValidationItem> validations() {
+    return validations;
+  }
+}
@@ -0,0 +1,8 @@
+package dev.genro.luan.packing_test.exception;
+
+public class PackingJobNotFoundException extends RuntimeException {
+
+  public PackingJobNotFoundException(String jobId) {
+    super("Packing job '%s' does not exist or has expired".formatted(jobId));
+  }
+}
@@ -0,0 +1,8 @@
+package dev.genro.luan.packing_test.exception;
+
+public class PackingJobRejectedException extends RuntimeException {
+
+  public PackingJobRejectedException() {
+    super("Too many packing jobs are queued, retry later");
+  }
+}
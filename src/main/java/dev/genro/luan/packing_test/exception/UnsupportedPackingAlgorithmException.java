@@ -0,0 +1,8 @@
+package dev.genro.luan.packing_test.exception;
+
+public class UnsupportedPackingAlgorithmException extends RuntimeException {
+
+  public UnsupportedPackingAlgorithmException(String algorithm) {
+    super("Packing algorithm '%s' is not supported".formatted(algorithm));
+  }
+}
@@ -0,0 +1,138 @@
+package dev.genro.luan.packing_test.interfaces.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import dev.genro.luan.packing_test.domain.service.PackagingService;
+import dev.genro.luan.packing_test.domain.service.PackingOptions;
+import dev.genro.luan.packing_test.exception.UnsupportedPackingAlgorithmException;
+import dev.genro.luan.packing_test.interfaces.dto.InputValidationResponse;
+import dev.genro.luan.packing_test.interfaces.dto.OrderRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * One newline-delimited packing exchange: orders are parsed incrementally from the request body,
+ * validated one by one and packed, and each result is written and flushed as its own line right away.
+ * <p>
+ * An order that fails validation produces an {@link InputValidationResponse} line, with fields
+ * prefixed by {@code orders[n]} like on the batch endpoint, and the stream moves on. Malformed
+ * JSON ends the stream with a final validation line. If nothing was written yet, the status is 400.
+ */
+class NdjsonOrderStream {
+
+  private static final String UNREADABLE_MESSAGE = "Request body informed is invalid, not able to parse as JSON.";
+
+  private final ObjectMapper objectMapper;
+  private final ObjectWriter lineWriter;
+  private final Validator validator;
+  private final HttpServletResponse response;
+  private JsonGenerator generator;
+  private long linesWritten;
+
+  NdjsonOrderStream(ObjectMapper objectMapper, Validator validator, HttpServletResponse response) {
+    this.objectMapper = objectMapper;
+    // each line is flushed once, after its newline, by writeLine
+    this.lineWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    this.validator = validator;
+    this.response = response;
+  }
+
+  void process(InputStream body, PackagingService packagingService, PackingOptions options) throws IOException {
+    try (MappingIterator<OrderRequest> orders = objectMapper.readerFor(OrderRequest.class).readValues(body);
+         JsonGenerator output = objectMapper.createGenerator(response.getOutputStream())) {
+      output.setRootValueSeparator(null);
+      this.generator = output;
+      try {
+        packagingService.packOrderStream(new ValidatingIterator(orders), options, this::writeLine);
+      } catch (UnsupportedPackingAlgorithmException e) {
+        writeError(new InputValidationResponse.InputValidationItem("algorithm", List.of(e.getMessage())));
+      } catch (RuntimeException e) {
+        if (!(e instanceof RuntimeJsonMappingException) && !(e.getCause() instanceof JsonProcessingException)) {
+          throw e;
+        }
+        writeError(new InputValidationResponse.InputValidationItem(null, List.of(UNREADABLE_MESSAGE)));
+      }
+    }
+  }
+
+  private void writeLine(Object value) {
+    try {
+      lineWriter.writeValue(generator, value);
+      generator.writeRaw('\n');
+      // the line goes out before the next order is packed, not when the generator buffer fills up
+      generator.flush();
+      linesWritten++;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void writeError(InputValidationResponse.InputValidationItem... items) {
+    if (linesWritten == 0 && !response.isCommitted()) {
+      response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+    }
+    writeLine(new InputValidationResponse(List.of(items)));
+  }
+
+  private final class ValidatingIterator implements Iterator<OrderRequest> {
+    private final MappingIterator<OrderRequest> orders;
+    private OrderRequest next;
+    private int position;
+
+    private ValidatingIterator(MappingIterator<OrderRequest> orders) {
+      this.orders = orders;
+    }
+
+    @Override
+    public boolean hasNext() {
+      while (next == null && orders.hasNext()) {
+        OrderRequest candidate = orders.next();
+        int index = position++;
+        Set<ConstraintViolation<OrderRequest>> violations = validator.validate(candidate);
+        if (violations.isEmpty()) {
+          next = candidate;
+        } else {
+          writeError(toValidationItems(index, violations));
+        }
+      }
+      return next != null;
+    }
+
+    @Override
+    public OrderRequest next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      OrderRequest order = next;
+      next = null;
+      return order;
+    }
+
+    private InputValidationResponse.InputValidationItem[] toValidationItems(
+        int index, Set<ConstraintViolation<OrderRequest>> violations) {
+      Map<String, List<String>> errorsByField = violations.stream()
+          .collect(Collectors.groupingBy(
+              violation -> "orders[%d].%s".formatted(index, violation.getPropertyPath()),
+              Collectors.mapping(ConstraintViolation::getMessage, Collectors.toList())));
+      return errorsByField.entrySet().stream()
+          .map(entry -> new InputValidationResponse.InputValidationItem(entry.getKey(), entry.getValue()))
+          .toArray(InputValidationResponse.InputValidationItem[]::new);
+    }
+  }
+}
@@ -0,0 +1,261 @@
+package dev.genro.luan.packing_test.interfaces.controller;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import dev.genro.luan.packing_test.exception.InvalidPackingRequestException;
+import dev.genro.luan.packing_test.interfaces.dto.DimensionRequest;
+import dev.genro.luan.packing_test.interfaces.dto.InputValidationResponse;
+import dev.genro.luan.packing_test.interfaces.dto.OrderRequest;
+import dev.genro.luan.packing_test.interfaces.dto.PackageOrderRequest;
+import dev.genro.luan.packing_test.interfaces.dto.ProductRequest;
+import dev.genro.luan.packing_test.interfaces.dto.ValidationMessages;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads a {@link PackageOrderRequest} token by token and checks the constraints declared on the
+ * request records while doing so, instead of binding through reflection and walking the result
+ * with Bean Validation afterwards. Every violation of the payload is collected, with the field
+ * paths and messages Bean Validation reports, and thrown at the end as an
+ * {@link InvalidPackingRequestException}.
+ * <p>
+ * Registered on the application's Jackson builder, so it serves JSON, Smile and CBOR bodies alike.
+ * Scalars that are not plain numbers or strings are handed to the {@link DeserializationContext},
+ * which applies the usual coercion rules and errors, and unknown properties go through the
+ * configured unknown property handling.
+ */
+@JsonComponent
+public class PackageOrderRequestDeserializer extends StdDeserializer<PackageOrderRequest> {
+
+  public PackageOrderRequestDeserializer() {
+    super(PackageOrderRequest.class);
+  }
+
+  @Override
+  public PackageOrderRequest deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+    Violations violations = new Violations();
+    List<OrderRequest> orders = null;
+    String algorithm = null;
+    Long timeBudgetMs = null;
+    for (String field = firstField(p, ctxt); field != null; field = p.nextFieldName()) {
+      p.nextToken();
+      switch (field) {
+        case "orders" -> orders = readOrders(p, ctxt, violations);
+        case "algorithm" -> algorithm = readString(p, ctxt);
+        case "time_budget_ms" -> timeBudgetMs = readLong(p, ctxt);
+        default -> ctxt.handleUnknownProperty(p, this, PackageOrderRequest.class, field);
+      }
+    }
+    if (orders == null || orders.isEmpty()) {
+      violations.add("orders", ValidationMessages.ORDERS_REQUIRED);
+    }
+    if (timeBudgetMs != null && timeBudgetMs <= 0) {
+      violations.add("timeBudgetMs", ValidationMessages.TIME_BUDGET_POSITIVE);
+    }
+    violations.throwIfAny();
+    return new PackageOrderRequest(orders, algorithm, timeBudgetMs);
+  }
+
+  private List<OrderRequest> readOrders(JsonParser p, DeserializationContext ctxt, Violations violations)
+      throws IOException {
+    if (!startArray(p, ctxt)) {
+      return null;
+    }
+    List<OrderRequest> orders = new ArrayList<>();
+    while (p.nextToken() != JsonToken.END_ARRAY) {
+      if (p.currentToken() == JsonToken.VALUE_NULL) {
+        violations.add("orders[%d]".formatted(orders.size()), ValidationMessages.ORDERS_REQUIRED);
+        orders.add(null);
+      } else {
+        orders.add(readOrder(p, ctxt, orders.size(), violations));
+      }
+    }
+    return orders;
+  }
+
+  private OrderRequest readOrder(JsonParser p, DeserializationContext ctxt, int orderIndex, Violations violations)
+      throws IOException {
+    Integer orderId = null;
+    List<ProductRequest> products = null;
+    for (String field = firstField(p, ctxt); field != null; field = p.nextFieldName()) {
+      p.nextToken();
+      switch (field) {
+        case "order_id" -> orderId = readInteger(p, ctxt);
+        case "products" -> products = readProducts(p, ctxt, orderIndex, violations);
+        default -> ctxt.handleUnknownProperty(p, this, OrderRequest.class, field);
+      }
+    }
+    if (orderId != null && orderId <= 0) {
+      violations.add("orders[%d].orderId".formatted(orderIndex), ValidationMessages.ORDER_ID_POSITIVE);
+    }
+    if (products == null || products.isEmpty()) {
+      violations.add("orders[%d].products".formatted(orderIndex), ValidationMessages.PRODUCTS_REQUIRED);
+    }
+    return new OrderRequest(orderId, products);
+  }
+
+  private List<ProductRequest> readProducts(JsonParser p, DeserializationContext ctxt, int orderIndex,
+                                            Violations violations) throws IOException {
+    if (!startArray(p, ctxt)) {
+      return null;
+    }
+    List<ProductRequest> products = new ArrayList<>();
+    while (p.nextToken() != JsonToken.END_ARRAY) {
+      if (p.currentToken() == JsonToken.VALUE_NULL) {
+        violations.add("orders[%d].products[%d]".formatted(orderIndex, products.size()),
+            ValidationMessages.PRODUCTS_REQUIRED);
+        products.add(null);
+      } else {
+        products.add(readProduct(p, ctxt, orderIndex, products.size(), violations));
+      }
+    }
+    return products;
+  }
+
+  private ProductRequest readProduct(JsonParser p, DeserializationContext ctxt, int orderIndex, int productIndex,
+                                     Violations violations) throws IOException {
+    String productId = null;
+    DimensionRequest dimension = null;
+    Integer weight = null;
+    for (String field = firstField(p, ctxt); field != null; field = p.nextFieldName()) {
+      p.nextToken();
+      switch (field) {
+        case "product_id" -> productId = readString(p, ctxt);
+        case "dimension" -> dimension = p.currentToken() == JsonToken.VALUE_NULL ?
+            null :
+            readDimension(p, ctxt, orderIndex, productIndex, violations);
+        case "weight" -> weight = readInteger(p, ctxt);
+        default -> ctxt.handleUnknownProperty(p, this, ProductRequest.class, field);
+      }
+    }
+    if (productId == null) {
+      violations.add("orders[%d].products[%d].productId".formatted(orderIndex, productIndex),
+          ValidationMessages.PRODUCT_ID_REQUIRED);
+    }
+    if (dimension == null) {
+      violations.add("orders[%d].products[%d].dimension".formatted(orderIndex, productIndex),
+          ValidationMessages.DIMENSION_REQUIRED);
+    }
+    if (weight != null && weight < 0) {
+      violations.add("orders[%d].products[%d].weight".formatted(orderIndex, productIndex),
+          ValidationMessages.WEIGHT_NOT_NEGATIVE);
+    }
+    return new ProductRequest(productId, dimension, weight);
+  }
+
+  private DimensionRequest readDimension(JsonParser p, DeserializationContext ctxt, int orderIndex, int productIndex,
+                                         Violations violations) throws IOException {
+    int height = 0;
+    int width = 0;
+    int length = 0;
+    for (String field = firstField(p, ctxt); field != null; field = p.nextFieldName()) {
+      p.nextToken();
+      switch (field) {
+        case "height" -> height = readInt(p, ctxt);
+        case "width" -> width = readInt(p, ctxt);
+        case "length" -> length = readInt(p, ctxt);
+        default -> ctxt.handleUnknownProperty(p, this, DimensionRequest.class, field);
+      }
+    }
+    if (height <= 0) {
+      violations.add("orders[%d].products[%d].dimension.height".formatted(orderIndex, productIndex),
+          ValidationMessages.HEIGHT_POSITIVE);
+    }
+    if (width <= 0) {
+      violations.add("orders[%d].products[%d].dimension.width".formatted(orderIndex, productIndex),
+          ValidationMessages.WIDTH_POSITIVE);
+    }
+    if (length <= 0) {
+      violations.add("orders[%d].products[%d].dimension.length".formatted(orderIndex, productIndex),
+          ValidationMessages.LENGTH_POSITIVE);
+    }
+    return new DimensionRequest(height, width, length);
+  }
+
+  /**
+   * @return the name of the first field of the object at the current token, or null if it is empty.
+   */
+  private String firstField(JsonParser p, DeserializationContext ctxt) throws IOException {
+    if (p.isExpectedStartObjectToken()) {
+      return p.nextFieldName();
+    }
+    if (p.currentToken() == JsonToken.FIELD_NAME) {
+      return p.currentName();
+    }
+    if (p.currentToken() == JsonToken.END_OBJECT) {
+      return null;
+    }
+    ctxt.reportWrongTokenException(this, JsonToken.START_OBJECT, "Expected an object");
+    return null;
+  }
+
+  /**
+   * @return false if the array is null.
+   */
+  private boolean startArray(JsonParser p, DeserializationContext ctxt) throws IOException {
+    if (p.currentToken() == JsonToken.VALUE_NULL) {
+      return false;
+    }
+    if (!p.isExpectedStartArrayToken()) {
+      ctxt.reportWrongTokenException(this, JsonToken.START_ARRAY, "Expected an array");
+    }
+    return true;
+  }
+
+  private static String readString(JsonParser p, DeserializationContext ctxt) throws IOException {
+    return switch (p.currentToken()) {
+      case VALUE_STRING -> p.getText();
+      case VALUE_NULL -> null;
+      default -> ctxt.readValue(p, String.class);
+    };
+  }
+
+  private static Integer readInteger(JsonParser p, DeserializationContext ctxt) throws IOException {
+    return switch (p.currentToken()) {
+      case VALUE_NUMBER_INT -> p.getIntValue();
+      case VALUE_NULL -> null;
+      default -> ctxt.readValue(p, Integer.class);
+    };
+  }
+
+  private static Long readLong(JsonParser p, DeserializationContext ctxt) throws IOException {
+    return switch (p.currentToken()) {
+      case VALUE_NUMBER_INT -> p.getLongValue();
+      case VALUE_NULL -> null;
+      default -> ctxt.readValue(p, Long.class);
+    };
+  }
+
+  private static int readInt(JsonParser p, DeserializationContext ctxt) throws IOException {
+    return p.currentToken() == JsonToken.VALUE_NUMBER_INT ? p.getIntValue() : ctxt.readValue(p, Integer.TYPE);
+  }
+
+  /**
+   * Messages by field path, created on the first violation so that valid payloads allocate nothing.
+   */
+  private static final class Violations {
+    private Map<String, List<String>> messagesByField;
+
+    void add(String field, String message) {
+      if (messagesByField == null) {
+        messagesByField = new LinkedHashMap<>();
+      }
+      messagesByField.computeIfAbsent(field, key -> new ArrayList<>(1)).add(message);
+    }
+
+    void throwIfAny() {
+      if (messagesByField != null) {
+        throw new InvalidPackingRequestException(messagesByField.entrySet().stream()
+            .map(entry -> new InputValidationResponse.InputValidationItem(entry.getKey(), entry.getValue()))
+            .toList());
+      }
+    }
+  }
+}
@@ -1,36 +1,61 @@
 package dev.genro.luan.packing_test.interfaces.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.genro.luan.packing_test.configuration.BinaryFormatConfiguration;
 import dev.genro.luan.packing_test.domain.service.PackagingService;
+import dev.genro.luan.packing_test.domain.service.PackingOptions;
 import dev.genro.luan.packing_test.interfaces.dto.*;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+
 @RestController
 @RequestMapping("/api/v1/packaging")
 @Tag(name = "Packaging Optimization", description = "API for optimizing product packaging into boxes.")
 public class PackagingController {
 
+  static final String TRACE_HEADER = "X-Packing-Trace";
+
   private final PackagingService packagingService;
+  private final ObjectMapper objectMapper;
+  private final Validator validator;
 
-  public PackagingController(PackagingService packagingService) {
+  public PackagingController(PackagingService packagingService, ObjectMapper objectMapper, Validator validator) {
     this.packagingService = packagingService;
+    this.objectMapper = objectMapper;
+    this.validator = validator;
   }
 
-  @PostMapping("/optimize")
+  @PostMapping(value = "/optimize",
+      consumes = {MediaType.APPLICATION_JSON_VALUE, BinaryFormatConfiguration.APPLICATION_SMILE_VALUE,
+          MediaType.APPLICATION_CBOR_VALUE},
+      produces = {MediaType.APPLICATION_JSON_VALUE, BinaryFormatConfiguration.APPLICATION_SMILE_VALUE,
+          MediaType.APPLICATION_CBOR_VALUE})
   @Operation(summary = "Optimize product packaging for orders",
       description = "Receives a list of orders with products and their dimensions, " +
-          "and returns the suggested boxing solution to minimize the number of boxes used.",
+          "and returns the suggested boxing solution to minimize the number of boxes used. " +
+          "Besides JSON, the payload and the response can be encoded as Smile (" +
+          BinaryFormatConfiguration.APPLICATION_SMILE_VALUE + ") or CBOR (" + MediaType.APPLICATION_CBOR_VALUE +
+          ") through the Content-Type and Accept headers.",
       requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
           description = "List of orders to be processed for packaging optimization.",
           required = true,
@@ -125,8 +150,127 @@ public class PackagingController {
       })
   @SecurityRequirement(name = "bearerAuth")
   public ResponseEntity<OrdersResponse> optimizePackaging(
-      @Valid @RequestBody PackageOrderRequest packageOrderRequest) {
-    OrdersResponse responses = packagingService.packOrders(packageOrderRequest);
+      // validated while it is read, by PackageOrderRequestDeserializer
+      @RequestBody PackageOrderRequest packageOrderRequest,
+      @Parameter(description = "Packing algorithm to use, overrides the algorithm field of the payload",
+          example = "best-fit-decreasing")
+      @RequestParam(required = false) String algorithm,
+      @Parameter(description = "When true, every order of the response carries its placement trace")
+      @RequestHeader(value = TRACE_HEADER, required = false, defaultValue = "false") boolean trace) {
+    PackingOptions options = new PackingOptions(
+        algorithm != null ? algorithm : packageOrderRequest.algorithm(), trace,
+        packageOrderRequest.timeBudgetMs());
+    OrdersResponse responses = packagingService.packOrders(packageOrderRequest, options);
     return ResponseEntity.ok(responses);
   }
+
+  @PostMapping(value = "/optimize/amend",
+      consumes = MediaType.APPLICATION_JSON_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE)
+  @Operation(summary = "Repack an order after products were added or removed",
+      description = "Receives the boxes of a previous packing of an order, with the products each box holds, " +
+          "plus the products added to and removed from the order. The previous boxes keep their types and their " +
+          "order; added products, and products a previous box can no longer hold, fill the room left in them " +
+          "before a new box is opened. Boxes left empty are dropped.",
+      requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+          description = "Previous packing of the order and the changes to it.",
+          required = true,
+          content = @Content(
+              mediaType = "application/json",
+              schema = @Schema(implementation = OrderAmendmentRequest.class),
+              examples = @ExampleObject(
+                  name = "Sample Amendment Request",
+                  summary = "Adds a game to order 1 and removes its PS5",
+                  value = """
+                        {
+                        "order_id": 1,
+                        "boxes": [
+                          {
+                            "box_id": "Box 1",
+                            "products": [
+                              {
+                                "product_id": "PS5",
+                                "dimension": {
+                                  "height": 40,
+                                  "width": 10,
+                                  "length": 25
+                                }
+                              },
+                              {
+                                "product_id": "Volante",
+                                "dimension": {
+                                  "height": 40,
+                                  "width": 30,
+                                  "length": 30
+                                }
+                              }
+                            ]
+                          }
+                        ],
+                        "added": [
+                          {
+                            "product_id": "Fifa 24",
+                            "dimension": {
+                              "height": 10,
+                              "width": 30,
+                              "length": 10
+                            }
+                          }
+                        ],
+                        "removed": ["PS5"]
+                      }
+                      """
+              )
+          )
+      ),
+      responses = {
+          @ApiResponse(responseCode = "200", description = "Successfully repaired packaging",
+              content = @Content(mediaType = "application/json",
+                  schema = @Schema(implementation = OrderBoxesResponse.class))),
+          @ApiResponse(responseCode = "401", description = "Unauthorized - JWT token is missing, invalid, or expired",
+              content = @Content(mediaType = "application/json",
+                  schema = @Schema(implementation = ApiErrorResponse.class))),
+          @ApiResponse(responseCode = "400", description = "Bad Request - Invalid input data, an unknown box type " +
+              "or a removed product that is not in the previous packing",
+              content = @Content(mediaType = "application/json",
+                  schema = @Schema(implementation = InputValidationResponse.class)))
+      })
+  @SecurityRequirement(name = "bearerAuth")
+  public ResponseEntity<OrderBoxesResponse> amendPackaging(@Valid @RequestBody OrderAmendmentRequest amendment) {
+    return ResponseEntity.ok(packagingService.amendOrder(amendment));
+  }
+
+  @PostMapping(value = "/optimize/stream",
+      consumes = MediaType.APPLICATION_NDJSON_VALUE,
+      produces = MediaType.APPLICATION_NDJSON_VALUE)
+  @Operation(summary = "Optimize product packaging for a stream of orders",
+      description = "Receives newline-delimited orders (one order JSON per line) and writes one packing result " +
+          "per line as soon as each order is packed. Memory use does not grow with the size of the batch. " +
+          "Orders that fail validation produce a validation line and are skipped.",
+      requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+          description = "Newline-delimited orders.",
+          required = true,
+          content = @Content(
+              mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+              schema = @Schema(implementation = OrderRequest.class))),
+      responses = {
+          @ApiResponse(responseCode = "200", description = "One packing result or validation error per line",
+              content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                  schema = @Schema(implementation = OrderBoxesResponse.class))),
+          @ApiResponse(responseCode = "401", description = "Unauthorized - JWT token is missing, invalid, or expired",
+              content = @Content(mediaType = "application/json",
+                  schema = @Schema(implementation = ApiErrorResponse.class)))
+      })
+  @SecurityRequirement(name = "bearerAuth")
+  public void optimizePackagingStream(
+      @Parameter(description = "Packing algorithm to use", example = "best-fit-decreasing")
+      @RequestParam(required = false) String algorithm,
+      @Parameter(description = "When true, every result line carries its placement trace")
+      @RequestHeader(value = TRACE_HEADER, required = false, defaultValue = "false") boolean trace,
+      HttpServletRequest request,
+      HttpServletResponse response) throws IOException {
+    response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+    new NdjsonOrderStream(objectMapper, validator, response)
+        .process(request.getInputStream(), packagingService, new PackingOptions(algorithm, trace));
+  }
 }
@@ -0,0 +1,127 @@
+package dev.genro.luan.packing_test.interfaces.controller;
+
+import dev.genro.luan.packing_test.configuration.BinaryFormatConfiguration;
+import dev.genro.luan.packing_test.domain.service.PackingJob;
+import dev.genro.luan.packing_test.domain.service.PackingJobService;
+import dev.genro.luan.packing_test.domain.service.PackingOptions;
+import dev.genro.luan.packing_test.exception.PackingJobNotFoundException;
+import dev.genro.luan.packing_test.interfaces.dto.*;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/api/v1/packaging/jobs")
+@Tag(name = "Packaging Jobs", description = "Asynchronous packing of large requests.")
+public class PackingJobController {
+
+  private final PackingJobService packingJobService;
+
+  public PackingJobController(PackingJobService packingJobService) {
+    this.packingJobService = packingJobService;
+  }
+
+  @PostMapping(
+      consumes = {MediaType.APPLICATION_JSON_VALUE, BinaryFormatConfiguration.APPLICATION_SMILE_VALUE,
+          MediaType.APPLICATION_CBOR_VALUE},
+      produces = MediaType.APPLICATION_JSON_VALUE)
+  @Operation(summary = "Submit a packing job",
+      description = "Takes the same payload as /optimize and returns at once with the id of a job that packs it in " +
+          "the background. Poll the job for its status and fetch its results, partial while it runs.",
+      responses = {
+          @ApiResponse(responseCode = "202", description = "Job queued",
+              content = @Content(mediaType = "application/json",
+                  schema = @Schema(implementation = PackingJobResponse.class))),
+          @ApiResponse(responseCode = "400", description = "Bad Request - Invalid input data",
+              content = @Content(mediaType = "application/json",
+                  schema = @Schema(implementation = InputValidationResponse.class))),
+          @ApiResponse(responseCode = "401", description = "Unauthorized - JWT token is missing, invalid, or expired",
+              content = @Content(mediaType = "application/json",
+                  schema = @Schema(implementation = ApiErrorResponse.class))),
+          @ApiResponse(responseCode = "429", description = "Too many jobs are queued, retry after the Retry-After delay",
+              content = @Content(mediaType = "application/json",
+                  schema = @Schema(implementation = ApiErrorResponse.class)))
+      })
+  @SecurityRequirement(name = "bearerAuth")
+  public ResponseEntity<PackingJobResponse> submitJob(
+      // validated while it is read, by PackageOrderRequestDeserializer
+      @RequestBody PackageOrderRequest packageOrderRequest,
+      @Parameter(description = "Packing algorithm to use, overrides the algorithm field of the payload",
+          example = "best-fit-decreasing")
+      @RequestParam(required = false) String algorithm,
+      @Parameter(description = "When true, every order of the result carries its placement trace")
+      @RequestHeader(value = PackagingController.TRACE_HEADER, required = false, defaultValue = "false") boolean trace) {
+    PackingOptions options = new PackingOptions(
+        algorithm != null ? algorithm : packageOrderRequest.algorithm(), trace,
+        packageOrderRequest.timeBudgetMs());
+    PackingJob job = packingJobService.submit(packageOrderRequest, options);
+    return ResponseEntity.accepted()
+        .location(ServletUriComponentsBuilder.fromCurrentRequest().path("/{jobId}").buildAndExpand(job.id()).toUri())
+        .body(toResponse(job));
+  }
+
+  @GetMapping(value = "/{jobId}", produces = MediaType.APPLICATION_JSON_VALUE)
+  @Operation(summary = "Get the status of a packing job",
+      responses = {
+          @ApiResponse(responseCode = "200", description = "Job status",
+              content = @Content(mediaType = "application/json",
+                  schema = @Schema(implementation = PackingJobResponse.class))),
+          @ApiResponse(responseCode = "404", description = "No such job, or it expired",
+              content = @Content(mediaType = "application/json",
+                  schema = @Schema(implementation = ApiErrorResponse.class)))
+      })
+  @SecurityRequirement(name = "bearerAuth")
+  public ResponseEntity<PackingJobResponse> getJob(@PathVariable String jobId) {
+    return ResponseEntity.ok(toResponse(findJob(jobId)));
+  }
+
+  @GetMapping(value = "/{jobId}/result",
+      produces = {MediaType.APPLICATION_JSON_VALUE, BinaryFormatConfiguration.APPLICATION_SMILE_VALUE,
+          MediaType.APPLICATION_CBOR_VALUE})
+  @Operation(summary = "Get the packed orders of a job",
+      description = "Returns the orders packed so far in request order; they are final once the status is completed.",
+      responses = {
+          @ApiResponse(responseCode = "200", description = "Packed orders",
+              content = @Content(mediaType = "application/json",
+                  schema = @Schema(implementation = PackingJobResultResponse.class))),
+          @ApiResponse(responseCode = "404", description = "No such job, or it expired",
+              content = @Content(mediaType = "application/json",
+                  schema = @Schema(implementation = ApiErrorResponse.class)))
+      })
+  @SecurityRequirement(name = "bearerAuth")
+  public ResponseEntity<PackingJobResultResponse> getJobResult(@PathVariable String jobId) {
+    PackingJob job = findJob(jobId);
+    String status = status(job);
+    return ResponseEntity.ok(new PackingJobResultResponse(job.id(), status, job.results()));
+  }
+
+  private PackingJob findJob(String jobId) {
+    return packingJobService.find(jobId).orElseThrow(() -> new PackingJobNotFoundException(jobId));
+  }
+
+  private static PackingJobResponse toResponse(PackingJob job) {
+    return new PackingJobResponse(job.id(), status(job), job.totalOrders(), job.packedOrders(), job.submittedAt(),
+        job.finishedAt(), job.error());
+  }
+
+  private static String status(PackingJob job) {
+    return job.status().name().toLowerCase(Locale.ROOT);
+  }
+}
@@ -0,0 +1,87 @@
+package dev.genro.luan.packing_test.interfaces.controller;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.lang.NonNull;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the time the message converters take to read each {@code @RequestBody} in the
+ * {@code http.request.deserialization} timer, tagged by content subtype (json, x-jackson-smile,
+ * cbor) and body type. Bodies that fail to parse are not recorded. Both tags take a handful of
+ * values, so each timer is registered once and kept in a map, like the meters of
+ * {@link dev.genro.luan.packing_test.domain.service.PackingMetrics}.
+ */
+@ControllerAdvice
+public class RequestDeserializationMetrics extends RequestBodyAdviceAdapter {
+
+  private static final String START_ATTRIBUTE = RequestDeserializationMetrics.class.getName() + ".start";
+  private final MeterRegistry meterRegistry;
+  private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+  public RequestDeserializationMetrics(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  public boolean supports(@NonNull MethodParameter methodParameter, @NonNull Type targetType,
+                          @NonNull Class<? extends HttpMessageConverter<?>> converterType) {
+    return true;
+  }
+
+  @Override
+  @NonNull
+  public HttpInputMessage beforeBodyRead(@NonNull HttpInputMessage inputMessage, @NonNull MethodParameter parameter,
+                                         @NonNull Type targetType,
+                                         @NonNull Class<? extends HttpMessageConverter<?>> converterType) {
+    RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+    if (attributes != null) {
+      attributes.setAttribute(START_ATTRIBUTE, System.nanoTime(), RequestAttributes.SCOPE_REQUEST);
+    }
+    return inputMessage;
+  }
+
+  @Override
+  @NonNull
+  public Object afterBodyRead(@NonNull Object body, @NonNull HttpInputMessage inputMessage,
+                              @NonNull MethodParameter parameter, @NonNull Type targetType,
+                              @NonNull Class<? extends HttpMessageConverter<?>> converterType) {
+    RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+    if (attributes != null && attributes.getAttribute(START_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof Long start) {
+      long elapsedNanos = System.nanoTime() - start;
+      MediaType contentType = inputMessage.getHeaders().getContentType();
+      timer(contentType != null ? contentType.getSubtype() : "unknown", parameter.getParameterType())
+          .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+    return body;
+  }
+
+  private Timer timer(String format, Class<?> bodyType) {
+    TimerKey timerKey = new TimerKey(format, bodyType);
+    Timer timer = timers.get(timerKey);
+    if (timer != null) {
+      return timer;
+    }
+    return timers.computeIfAbsent(timerKey, key -> Timer.builder("http.request.deserialization")
+        .description("Time to read and bind a request body")
+        .tag("format", key.format())
+        .tag("type", key.bodyType().getSimpleName())
+        .publishPercentileHistogram()
+        .register(meterRegistry));
+  }
+
+  private record TimerKey(String format, Class<?> bodyType) {
+  }
+}
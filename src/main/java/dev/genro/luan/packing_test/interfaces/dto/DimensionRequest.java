@@ -2,7 +2,7 @@ package dev.genro.luan.packing_test.interfaces.dto;
 
 import jakarta.validation.constraints.Positive;
 
-public record DimensionRequest(@Positive(message = "Product height must be a positive number") int height,
-                               @Positive(message = "Product width must be a positive number") int width,
-                               @Positive(message = "Product length must be a positive number") int length) {
+public record DimensionRequest(@Positive(message = ValidationMessages.HEIGHT_POSITIVE) int height,
+                               @Positive(message = ValidationMessages.WIDTH_POSITIVE) int width,
+                               @Positive(message = ValidationMessages.LENGTH_POSITIVE) int length) {
 }
@@ -0,0 +1,11 @@
+package dev.genro.luan.packing_test.interfaces.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public record OptimizationResponse(@Schema(description = "Boxes saved compared to the first-fit layout")
+                                   @JsonProperty(value = "boxes_saved") int boxesSaved,
+                                   @Schema(description = "True if the search ran out of improvements before the deadline, " +
+                                       "false if the deadline cut it short")
+                                   boolean completed) {
+}
@@ -0,0 +1,19 @@
+package dev.genro.luan.packing_test.interfaces.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.util.List;
+
+public record OrderAmendmentRequest(@JsonProperty(value = "order_id")
+                                    @Positive(message = ValidationMessages.ORDER_ID_POSITIVE) Integer orderId,
+                                    @Schema(description = "Boxes of the previous packing of the order, in the same order, with the products they hold")
+                                    @NotNull(message = ValidationMessages.BOXES_REQUIRED) @Valid List<PackedBoxRequest> boxes,
+                                    @Schema(description = "Products added to the order")
+                                    @Valid List<ProductRequest> added,
+                                    @Schema(description = "Identifiers of the products removed from the order, once per removed unit")
+                                    List<String> removed) {
+}
@@ -1,8 +1,23 @@
 package dev.genro.luan.packing_test.interfaces.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
 
 import java.util.List;
 
-public record OrderBoxesResponse(@JsonProperty(value = "order_id") Integer orderId, List<PackedBoxResponse> boxes) {
+public record OrderBoxesResponse(@JsonProperty(value = "order_id") Integer orderId,
+                                 List<PackedBoxResponse> boxes,
+                                 @Schema(description = "Placement trace, only present when tracing was requested or sampled")
+                                 @JsonInclude(JsonInclude.Include.NON_NULL) PackingTraceResponse trace,
+                                 @Schema(description = "Outcome of the improvement search, only present for the anytime strategy")
+                                 @JsonInclude(JsonInclude.Include.NON_NULL) OptimizationResponse optimization) {
+
+  public OrderBoxesResponse(Integer orderId, List<PackedBoxResponse> boxes) {
+    this(orderId, boxes, null, null);
+  }
+
+  public OrderBoxesResponse(Integer orderId, List<PackedBoxResponse> boxes, PackingTraceResponse trace) {
+    this(orderId, boxes, trace, null);
+  }
 }
@@ -8,6 +8,6 @@ import jakarta.validation.constraints.Positive;
 import java.util.List;
 
 public record OrderRequest(@JsonProperty(value = "order_id")
-                           @Positive(message = "Order identifier must be a positive number") Integer orderId,
-                           @NotEmpty(message = "Products must be informed") @Valid List<ProductRequest> products) {
+                           @Positive(message = ValidationMessages.ORDER_ID_POSITIVE) Integer orderId,
+                           @NotEmpty(message = ValidationMessages.PRODUCTS_REQUIRED) @Valid List<ProductRequest> products) {
 }
@@ -1,9 +1,27 @@
 package dev.genro.luan.packing_test.interfaces.dto;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
 
 import java.util.List;
 
-public record PackageOrderRequest(@Valid @NotEmpty(message = "Orders must be informed") List<OrderRequest> orders) {
+public record PackageOrderRequest(@Valid @NotEmpty(message = ValidationMessages.ORDERS_REQUIRED)
+                                  List<OrderRequest> orders,
+                                  @Schema(description = "Packing algorithm to use, defaults to the configured one",
+                                      example = "spatial") String algorithm,
+                                  @Schema(description = "Milliseconds the anytime algorithm may spend improving the " +
+                                      "layouts of the whole request, defaults to the configured budget", example = "50")
+                                  @Positive(message = ValidationMessages.TIME_BUDGET_POSITIVE)
+                                  @JsonProperty(value = "time_budget_ms") Long timeBudgetMs) {
+
+  public PackageOrderRequest(List<OrderRequest> orders) {
+    this(orders, null);
+  }
+
+  public PackageOrderRequest(List<OrderRequest> orders, String algorithm) {
+    this(orders, algorithm, null);
+  }
 }
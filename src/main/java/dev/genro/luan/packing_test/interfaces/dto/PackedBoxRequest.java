@@ -0,0 +1,13 @@
+package dev.genro.luan.packing_test.interfaces.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public record PackedBoxRequest(@Schema(description = "Box type of a previous box, or null for the products that did not fit any box")
+                               @JsonProperty(value = "box_id") String boxId,
+                               @NotEmpty(message = ValidationMessages.PRODUCTS_REQUIRED) @Valid List<ProductRequest> products) {
+}
@@ -0,0 +1,21 @@
+package dev.genro.luan.packing_test.interfaces.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+public record PackingJobResponse(@JsonProperty(value = "job_id") String jobId,
+                                 @Schema(description = "queued, running, completed or failed", example = "running")
+                                 String status,
+                                 @JsonProperty(value = "total_orders") int totalOrders,
+                                 @Schema(description = "Orders packed so far, available from the result endpoint")
+                                 @JsonProperty(value = "packed_orders") int packedOrders,
+                                 @JsonProperty(value = "submitted_at") Instant submittedAt,
+                                 @Schema(description = "When the job completed or failed")
+                                 @JsonInclude(JsonInclude.Include.NON_NULL)
+                                 @JsonProperty(value = "finished_at") Instant finishedAt,
+                                 @Schema(description = "Why the job failed")
+                                 @JsonInclude(JsonInclude.Include.NON_NULL) String error) {
+}
@@ -0,0 +1,14 @@
+package dev.genro.luan.packing_test.interfaces.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+public record PackingJobResultResponse(@JsonProperty(value = "job_id") String jobId,
+                                       @Schema(description = "queued, running, completed or failed; the orders are " +
+                                           "final only when completed", example = "completed")
+                                       String status,
+                                       @Schema(description = "Orders packed so far, in request order")
+                                       List<OrderBoxesResponse> orders) {
+}
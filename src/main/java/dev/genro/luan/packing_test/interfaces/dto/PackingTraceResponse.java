@@ -0,0 +1,22 @@
+package dev.genro.luan.packing_test.interfaces.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+public record PackingTraceResponse(@Schema(description = "Packing strategy that produced the result") String strategy,
+                                   @Schema(description = "Time spent packing the order, in microseconds")
+                                   @JsonProperty(value = "elapsed_micros") long elapsedMicros,
+                                   @Schema(description = "Placement decisions in the order they were taken")
+                                   List<Event> events) {
+
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  public record Event(@Schema(description = "opened, placed or unpackable") String type,
+                      @Schema(description = "Position of the box in the order's box list")
+                      @JsonProperty(value = "box_index") Integer boxIndex,
+                      @JsonProperty(value = "box_id") String boxId,
+                      @JsonProperty(value = "product_id") String productId) {
+  }
+}
@@ -1,10 +1,18 @@
 package dev.genro.luan.packing_test.interfaces.dto;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
 
 public record ProductRequest(@JsonProperty(value = "product_id")
-                             @NotNull(message = "Product identifier must be informed") String productId,
-                             @Valid @NotNull(message = "Product dimensions bust me informed") DimensionRequest dimension) {
+                             @NotNull(message = ValidationMessages.PRODUCT_ID_REQUIRED) String productId,
+                             @Valid @NotNull(message = ValidationMessages.DIMENSION_REQUIRED) DimensionRequest dimension,
+                             @Schema(description = "Product weight in grams, checked against the weight limit of the boxes")
+                             @PositiveOrZero(message = ValidationMessages.WEIGHT_NOT_NEGATIVE) Integer weight) {
+
+  public ProductRequest(String productId, DimensionRequest dimension) {
+    this(productId, dimension, null);
+  }
 }
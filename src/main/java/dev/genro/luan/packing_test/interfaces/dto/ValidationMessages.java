@@ -0,0 +1,24 @@
+package dev.genro.luan.packing_test.interfaces.dto;
+
+/**
+ * Messages of the constraints declared on the request records. The constraint annotations and
+ * the {@code PackageOrderRequestDeserializer}, which checks the same constraints while reading,
+ * both use these, so a client gets the same message whichever path validated the payload.
+ */
+public final class ValidationMessages {
+
+  public static final String ORDERS_REQUIRED = "Orders must be informed";
+  public static final String TIME_BUDGET_POSITIVE = "Time budget must be a positive number";
+  public static final String ORDER_ID_POSITIVE = "Order identifier must be a positive number";
+  public static final String PRODUCTS_REQUIRED = "Products must be informed";
+  public static final String PRODUCT_ID_REQUIRED = "Product identifier must be informed";
+  public static final String DIMENSION_REQUIRED = "Product dimensions must be informed";
+  public static final String WEIGHT_NOT_NEGATIVE = "Product weight must not be negative";
+  public static final String HEIGHT_POSITIVE = "Product height must be a positive number";
+  public static final String WIDTH_POSITIVE = "Product width must be a positive number";
+  public static final String LENGTH_POSITIVE = "Product length must be a positive number";
+  public static final String BOXES_REQUIRED = "Previous boxes must be informed";
+
+  private ValidationMessages() {
+  }
+}
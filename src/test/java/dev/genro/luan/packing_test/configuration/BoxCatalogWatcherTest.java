@@ -0,0 +1,77 @@
+package dev.genro.luan.packing_test.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.genro.luan.packing_test.domain.model.BoxCatalog;
+import dev.genro.luan.packing_test.domain.model.BoxCatalogHolder;
+import dev.genro.luan.packing_test.domain.model.BoxType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoxCatalogWatcherTest {
+
+  @TempDir
+  Path directory;
+
+  private Path catalogPath;
+  private BoxCatalogFile catalogFile;
+  private BoxCatalogHolder holder;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    catalogPath = directory.resolve("boxes.json");
+    write("""
+        [{ "name": "Small", "height": 10, "width": 10, "length": 10 }]
+        """, 1);
+    catalogFile = new BoxCatalogFile(new FileSystemResource(catalogPath), new ObjectMapper());
+    holder = new BoxCatalogHolder(new BoxCatalog(catalogFile.read()));
+  }
+
+  @Test
+  @DisplayName("Should publish a new catalog version when the file changes, leaving held snapshots intact")
+  void checkForChanges_whenFileChanges_shouldPublishNewSnapshot() throws IOException {
+    try (BoxCatalogWatcher watcher = new BoxCatalogWatcher(catalogFile, holder, 0)) {
+      BoxCatalog inFlight = holder.current();
+      write("""
+          [{ "name": "Large", "height": 90, "width": 90, "length": 90 },
+           { "name": "Small", "height": 10, "width": 10, "length": 10 }]
+          """, 2);
+
+      assertTrue(watcher.checkForChanges());
+      assertFalse(watcher.checkForChanges());
+      assertEquals(1, holder.current().version());
+      assertEquals(List.of("Small", "Large"), holder.current().boxTypes().stream().map(BoxType::name).toList());
+      assertEquals(List.of("Small"), inFlight.boxTypes().stream().map(BoxType::name).toList());
+    }
+  }
+
+  @Test
+  @DisplayName("Should keep the current catalog when the changed file is invalid")
+  void checkForChanges_whenFileIsInvalid_shouldKeepCurrentSnapshot() throws IOException {
+    try (BoxCatalogWatcher watcher = new BoxCatalogWatcher(catalogFile, holder, 0)) {
+      BoxCatalog current = holder.current();
+      write("""
+          [{ "name": "Flat", "height": 0, "width": 10, "length": 10 }]
+          """, 2);
+
+      assertFalse(watcher.checkForChanges());
+      assertSame(current, holder.current());
+    }
+  }
+
+  private void write(String content, long second) throws IOException {
+    Files.writeString(catalogPath, content);
+    Files.setLastModifiedTime(catalogPath, FileTime.from(Instant.ofEpochSecond(second)));
+  }
+}
@@ -0,0 +1,89 @@
+package dev.genro.luan.packing_test.configuration.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtRequestFilterTest {
+
+  private static final String SECRET = "TestSecretKeyWhichIsLongEnoughForHmacSha256Signing";
+
+  private SimpleMeterRegistry registry;
+  private JwtRequestFilter filter;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+    filter = new JwtRequestFilter(new JwtUtil(SECRET, 60_000, 100), registry);
+  }
+
+  @AfterEach
+  void tearDown() {
+    SecurityContextHolder.clearContext();
+  }
+
+  private void filter(String token) throws ServletException, IOException {
+    SecurityContextHolder.clearContext();
+    MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/packaging/optimize");
+    request.addHeader("Authorization", "Bearer " + token);
+    filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+  }
+
+  private long validations(String outcome) {
+    return registry.get("jwt.validation").tag("outcome", outcome).timer().count();
+  }
+
+  private static String token(String secret, long expirationMs) {
+    return new JwtUtil(secret, expirationMs, 100).generateToken(new User("user", "password", List.of()));
+  }
+
+  @Test
+  @DisplayName("Should authenticate a valid token and time it as valid")
+  void doFilter_whenTokenIsValid_shouldRecordValidOutcome() throws ServletException, IOException {
+    String token = token(SECRET, 60_000);
+
+    filter(token);
+
+    assertEquals("user", SecurityContextHolder.getContext().getAuthentication().getName());
+    filter(token);
+    assertEquals(2, validations("valid"));
+    assertEquals(0, validations("invalid"));
+    assertEquals(0, validations("expired"));
+  }
+
+  @Test
+  @DisplayName("Should leave forged and malformed tokens unauthenticated and time them as invalid")
+  void doFilter_whenTokenIsInvalid_shouldRecordInvalidOutcome() throws ServletException, IOException {
+    filter(token(SECRET + "-other", 60_000));
+    assertNull(SecurityContextHolder.getContext().getAuthentication());
+
+    filter("not-a-token");
+    assertNull(SecurityContextHolder.getContext().getAuthentication());
+
+    assertEquals(2, validations("invalid"));
+    assertEquals(0, validations("valid"));
+  }
+
+  @Test
+  @DisplayName("Should leave an expired token unauthenticated and time it as expired")
+  void doFilter_whenTokenIsExpired_shouldRecordExpiredOutcome() throws ServletException, IOException {
+    filter(token(SECRET, -1_000));
+
+    assertNull(SecurityContextHolder.getContext().getAuthentication());
+    assertEquals(1, validations("expired"));
+    assertEquals(0, validations("valid"));
+  }
+}
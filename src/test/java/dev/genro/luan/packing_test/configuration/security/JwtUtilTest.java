@@ -0,0 +1,60 @@
+package dev.genro.luan.packing_test.configuration.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+
+  private static final String SECRET = "TestSecretKeyWhichIsLongEnoughForHmacSha256Signing";
+
+  private JwtUtil jwtUtil;
+  private UserDetails user;
+
+  @BeforeEach
+  void setUp() {
+    jwtUtil = new JwtUtil(SECRET, 60_000, 100);
+    user = new User("user", "password", List.of());
+  }
+
+  @Test
+  @DisplayName("Should return the same verified claims for a reused token")
+  void verifiedClaims_whenTokenIsReused_shouldReturnCachedClaims() {
+    String token = jwtUtil.generateToken(user);
+
+    Claims first = jwtUtil.verifiedClaims(token);
+    Claims second = jwtUtil.verifiedClaims(token);
+
+    assertSame(first, second);
+    assertEquals("user", first.getSubject());
+    assertTrue(jwtUtil.validateToken(second, user));
+  }
+
+  @Test
+  @DisplayName("Should reject a token signed with another key and keep rejecting it")
+  void verifiedClaims_whenSignatureIsInvalid_shouldNotCacheToken() {
+    String forged = new JwtUtil(SECRET + "-other", 60_000, 100).generateToken(user);
+
+    assertThrows(SignatureException.class, () -> jwtUtil.verifiedClaims(forged));
+    assertThrows(SignatureException.class, () -> jwtUtil.verifiedClaims(forged));
+    assertFalse(jwtUtil.validateToken(forged, user));
+  }
+
+  @Test
+  @DisplayName("Should reject an expired token")
+  void verifiedClaims_whenTokenIsExpired_shouldThrow() {
+    String expired = new JwtUtil(SECRET, -1_000, 100).generateToken(user);
+
+    assertThrows(ExpiredJwtException.class, () -> jwtUtil.verifiedClaims(expired));
+    assertFalse(jwtUtil.validateToken(expired, user));
+  }
+}
@@ -0,0 +1,43 @@
+package dev.genro.luan.packing_test.configuration.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserDetailsServiceImplTest {
+
+  @Test
+  @DisplayName("Should hash passwords once and hand out independent copies of the user")
+  void loadUserByUsername_shouldNotHashOnLookup() {
+    AtomicInteger encodeCalls = new AtomicInteger();
+    BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(4) {
+      @Override
+      public String encode(CharSequence rawPassword) {
+        encodeCalls.incrementAndGet();
+        return super.encode(rawPassword);
+      }
+    };
+    UserDetailsServiceImpl userDetailsService = new UserDetailsServiceImpl(encoder);
+
+    UserDetails first = userDetailsService.loadUserByUsername("user");
+    UserDetails second = userDetailsService.loadUserByUsername("user");
+
+    assertEquals(1, encodeCalls.get());
+    assertTrue(encoder.matches("password", second.getPassword()));
+    assertNotSame(first, second);
+  }
+
+  @Test
+  @DisplayName("Should reject an unknown username")
+  void loadUserByUsername_whenUnknown_shouldThrow() {
+    UserDetailsServiceImpl userDetailsService = new UserDetailsServiceImpl(new BCryptPasswordEncoder(4));
+
+    assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("other"));
+  }
+}
@@ -0,0 +1,59 @@
+package dev.genro.luan.packing_test.domain.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoxCatalogTest {
+
+  private BoxCatalog boxCatalog;
+
+  @BeforeEach
+  void setUp() {
+    boxCatalog = new BoxCatalog(List.of(
+        new BoxType("Box 3", new Dimension(50, 80, 60)),
+        new BoxType("Box 1", new Dimension(30, 40, 80)),
+        new BoxType("Box 2", new Dimension(80, 50, 40))));
+  }
+
+  @Test
+  @DisplayName("Should order box types by volume")
+  void boxTypes_shouldBeSortedByVolume() {
+    assertEquals(List.of("Box 1", "Box 2", "Box 3"), boxCatalog.boxTypes().stream().map(BoxType::name).toList());
+  }
+
+  @Test
+  @DisplayName("Should report every box type that fits and the smallest one")
+  void compatibility_whenProductFitsSomeBoxes_shouldReturnMaskAndSmallest() {
+    BoxCompatibility compatibility = boxCatalog.compatibility(40, 50, 70);
+
+    assertFalse(compatibility.fits(0));
+    assertTrue(compatibility.fits(1));
+    assertTrue(compatibility.fits(2));
+    assertEquals(1, compatibility.smallestFittingIndex());
+    assertEquals("Box 2", boxCatalog.get(boxCatalog.smallestFittingIndex(compatibility, 0)).name());
+  }
+
+  @Test
+  @DisplayName("Should share the cached entry between rotations of the same product")
+  void compatibility_whenProductIsRotated_shouldReuseCachedEntry() {
+    CanonicalDimension upright = new Dimension(10, 20, 30).canonical();
+    CanonicalDimension lyingDown = new Dimension(30, 10, 20).canonical();
+
+    assertSame(boxCatalog.compatibility(upright.smallest(), upright.middle(), upright.largest()),
+        boxCatalog.compatibility(lyingDown.smallest(), lyingDown.middle(), lyingDown.largest()));
+  }
+
+  @Test
+  @DisplayName("Should report no fitting box for a product larger than every box")
+  void compatibility_whenProductFitsNoBox_shouldReturnNoSmallest() {
+    BoxCompatibility compatibility = boxCatalog.compatibility(100, 100, 100);
+
+    assertFalse(compatibility.fitsAny());
+    assertEquals(-1, boxCatalog.smallestFittingIndex(compatibility, 0));
+  }
+}
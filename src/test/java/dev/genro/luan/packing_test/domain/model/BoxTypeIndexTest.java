@@ -0,0 +1,63 @@
+package dev.genro.luan.packing_test.domain.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoxTypeIndexTest {
+
+  private static List<BoxType> randomBoxTypes(Random random, int count) {
+    List<BoxType> boxTypes = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      boxTypes.add(new BoxType("Box " + i,
+          new Dimension(5 + random.nextInt(100), 5 + random.nextInt(100), 5 + random.nextInt(100))));
+    }
+    return new BoxCatalog(boxTypes).boxTypes();
+  }
+
+  @Test
+  @DisplayName("Should find the same box types as checking every box type")
+  void compatibility_shouldMatchLinearScan() {
+    Random random = new Random(11);
+    for (int count : new int[]{1, 2, 3, 64, 65, 300}) {
+      List<BoxType> boxTypes = randomBoxTypes(random, count);
+      BoxTypeIndex index = new BoxTypeIndex(boxTypes);
+
+      for (int query = 0; query < 500; query++) {
+        CanonicalDimension item = new Dimension(1 + random.nextInt(110), 1 + random.nextInt(110),
+            1 + random.nextInt(110)).canonical();
+        BoxCompatibility compatibility = index.compatibility(item);
+
+        int smallestFitting = -1;
+        for (int boxIndex = 0; boxIndex < count; boxIndex++) {
+          boolean fits = item.fitsInto(boxTypes.get(boxIndex).canonical());
+          assertEquals(fits, compatibility.fits(boxIndex), "box %d of %d for %s".formatted(boxIndex, count, item));
+          if (fits && smallestFitting < 0) {
+            smallestFitting = boxIndex;
+          }
+        }
+        assertEquals(smallestFitting, compatibility.smallestFittingIndex());
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Should pick the first listed of two box types with the same sides")
+  void compatibility_whenBoxTypesAreIdentical_shouldReturnBoth() {
+    BoxTypeIndex index = new BoxTypeIndex(new BoxCatalog(List.of(
+        new BoxType("A", new Dimension(10, 20, 30)),
+        new BoxType("B", new Dimension(30, 20, 10)))).boxTypes());
+
+    BoxCompatibility compatibility = index.compatibility(new CanonicalDimension(5, 5, 5));
+
+    assertTrue(compatibility.fits(0));
+    assertTrue(compatibility.fits(1));
+    assertEquals(0, compatibility.smallestFittingIndex());
+    assertFalse(index.compatibility(new CanonicalDimension(5, 5, 31)).fitsAny());
+  }
+}
@@ -0,0 +1,41 @@
+package dev.genro.luan.packing_test.domain.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DimensionTest {
+
+  private static boolean fitsInAnyOrientation(Dimension product, Dimension box) {
+    int[] p = {product.height(), product.width(), product.length()};
+    int[][] orientations = {{0, 1, 2}, {0, 2, 1}, {1, 0, 2}, {1, 2, 0}, {2, 0, 1}, {2, 1, 0}};
+    for (int[] o : orientations) {
+      if (p[o[0]] <= box.height() && p[o[1]] <= box.width() && p[o[2]] <= box.length()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Test
+  @DisplayName("Should sort the sides into the canonical form")
+  void canonical_shouldSortSides() {
+    assertEquals(new CanonicalDimension(10, 25, 40), new Dimension(40, 10, 25).canonical());
+    assertEquals(new CanonicalDimension(7, 7, 7), new Dimension(7, 7, 7).canonical());
+  }
+
+  @Test
+  @DisplayName("Should agree with checking all six orientations")
+  void canFitInto_shouldMatchSixOrientationCheck() {
+    Random random = new Random(42);
+    for (int i = 0; i < 10_000; i++) {
+      Dimension product = new Dimension(1 + random.nextInt(60), 1 + random.nextInt(60), 1 + random.nextInt(60));
+      Dimension box = new Dimension(1 + random.nextInt(60), 1 + random.nextInt(60), 1 + random.nextInt(60));
+
+      assertEquals(fitsInAnyOrientation(product, box), product.canFitInto(box), "%s into %s".formatted(product, box));
+    }
+  }
+}
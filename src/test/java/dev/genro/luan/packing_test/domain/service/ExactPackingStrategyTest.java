@@ -0,0 +1,158 @@
+package dev.genro.luan.packing_test.domain.service;
+
+import dev.genro.luan.packing_test.domain.model.BoxCatalog;
+import dev.genro.luan.packing_test.domain.model.BoxType;
+import dev.genro.luan.packing_test.domain.model.Dimension;
+import dev.genro.luan.packing_test.interfaces.dto.DimensionRequest;
+import dev.genro.luan.packing_test.interfaces.dto.OrderRequest;
+import dev.genro.luan.packing_test.interfaces.dto.ProductRequest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExactPackingStrategyTest {
+
+  private static final int ORDERS_PER_CATALOG = 150;
+
+  private final ExactPackingStrategy exact = new ExactPackingStrategy(12, Long.MAX_VALUE, 60_000);
+
+  private static BoxCatalog catalog(int... maxWeights) {
+    return new BoxCatalog(List.of(
+        new BoxType("Box 1", new Dimension(30, 40, 80), maxWeights[0], 0),
+        new BoxType("Box 2", new Dimension(80, 50, 40), maxWeights[1], 0),
+        new BoxType("Box 3", new Dimension(50, 80, 60), maxWeights[2], 0)));
+  }
+
+  private static OrderRequest randomOrder(Random random, int size, boolean weighted) {
+    List<ProductRequest> products = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      products.add(new ProductRequest("p" + i,
+          new DimensionRequest(5 + random.nextInt(46), 5 + random.nextInt(46), 5 + random.nextInt(66)),
+          weighted ? random.nextInt(7_000) : null));
+    }
+    return new OrderRequest(1, products);
+  }
+
+  @Test
+  @DisplayName("Should use as few boxes as an exhaustive search, with and without weight limits")
+  void pack_shouldMatchBruteForceBoxCount() {
+    Random random = new Random(18);
+    for (BoxCatalog catalog : List.of(catalog(0, 0, 0), catalog(5_000, 12_000, 20_000))) {
+      for (int n = 0; n < ORDERS_PER_CATALOG; n++) {
+        OrderColumns order = OrderColumns.of(randomOrder(random, 1 + random.nextInt(12), catalog.weightLimited()));
+        PackingWorkspace workspace = new PackingWorkspace();
+        workspace.reset(catalog);
+
+        exact.pack(order, catalog, workspace);
+
+        assertFalse(workspace.budgetExceeded());
+        assertValidLayout(order, catalog, workspace);
+        BruteForce bruteForce = new BruteForce(order, catalog);
+        assertEquals(bruteForce.unpackable, workspace.unpackableCount());
+        assertEquals(bruteForce.minimumBoxes(), workspace.boxCount(), "order %d of %d products".formatted(n, order.size()));
+      }
+    }
+  }
+
+  private static void assertValidLayout(OrderColumns order, BoxCatalog catalog, PackingWorkspace workspace) {
+    boolean[] seen = new boolean[order.size()];
+    for (int box = 0; box < workspace.boxCount(); box++) {
+      BoxType boxType = workspace.boxType(box);
+      long volume = 0;
+      long weight = 0;
+      for (int position = 0; position < workspace.productCount(box); position++) {
+        int product = workspace.productAt(box, position);
+        assertFalse(seen[product]);
+        seen[product] = true;
+        assertTrue(order.compatibility(product, catalog).fits(workspace.boxTypeIndex(box)));
+        volume += order.volume(product);
+        weight += order.weight(product);
+      }
+      assertTrue(volume <= boxType.volume());
+      assertTrue(weight <= boxType.weightCapacity());
+    }
+    for (int position = 0; position < workspace.unpackableCount(); position++) {
+      assertFalse(seen[workspace.unpackableAt(position)]);
+      seen[workspace.unpackableAt(position)] = true;
+    }
+    for (boolean productSeen : seen) {
+      assertTrue(productSeen);
+    }
+  }
+
+  /**
+   * Tries every partition of the packable products into boxes, without any bound but the best
+   * count found so far.
+   */
+  private static final class BruteForce {
+    private final OrderColumns order;
+    private final BoxCatalog catalog;
+    private final List<Integer> items = new ArrayList<>();
+    private final int unpackable;
+    private final long[] binMasks;
+    private final long[] binVolumes;
+    private final long[] binWeights;
+    private int best;
+
+    private BruteForce(OrderColumns order, BoxCatalog catalog) {
+      this.order = order;
+      this.catalog = catalog;
+      for (int product = 0; product < order.size(); product++) {
+        if (catalog.smallestFittingIndex(order.compatibility(product, catalog), order.weight(product)) >= 0) {
+          items.add(product);
+        }
+      }
+      this.unpackable = order.size() - items.size();
+      this.binMasks = new long[items.size()];
+      this.binVolumes = new long[items.size()];
+      this.binWeights = new long[items.size()];
+    }
+
+    int minimumBoxes() {
+      best = items.size();
+      assign(0, 0);
+      return best;
+    }
+
+    private void assign(int item, int binCount) {
+      if (binCount >= best && item < items.size()) {
+        return;
+      }
+      if (item == items.size()) {
+        best = Math.min(best, binCount);
+        return;
+      }
+      int product = items.get(item);
+      long mask = order.compatibility(product, catalog).mask()[0];
+      for (int bin = 0; bin <= binCount; bin++) {
+        long previousMask = bin < binCount ? binMasks[bin] : -1L;
+        long previousVolume = bin < binCount ? binVolumes[bin] : 0;
+        long previousWeight = bin < binCount ? binWeights[bin] : 0;
+        binMasks[bin] = previousMask & mask;
+        binVolumes[bin] = previousVolume + order.volume(product);
+        binWeights[bin] = previousWeight + order.weight(product);
+        if (feasible(bin)) {
+          assign(item + 1, Math.max(binCount, bin + 1));
+        }
+        binMasks[bin] = previousMask;
+        binVolumes[bin] = previousVolume;
+        binWeights[bin] = previousWeight;
+      }
+    }
+
+    private boolean feasible(int bin) {
+      for (int type = 0; type < catalog.size(); type++) {
+        if ((binMasks[bin] & 1L << type) != 0 && binVolumes[bin] <= catalog.get(type).volume()
+            && binWeights[bin] <= catalog.get(type).weightCapacity()) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+}
@@ -0,0 +1,94 @@
+package dev.genro.luan.packing_test.domain.service;
+
+import dev.genro.luan.packing_test.domain.model.BoxCatalog;
+import dev.genro.luan.packing_test.domain.model.BoxType;
+import dev.genro.luan.packing_test.domain.model.Dimension;
+import dev.genro.luan.packing_test.interfaces.dto.DimensionRequest;
+import dev.genro.luan.packing_test.interfaces.dto.OrderRequest;
+import dev.genro.luan.packing_test.interfaces.dto.ProductRequest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderColumnsTest {
+
+  private static List<String> productIds(OrderColumns order) {
+    return IntStream.range(0, order.size()).mapToObj(order::productId).toList();
+  }
+
+  @Test
+  @DisplayName("Should sort by volume, then smallest and middle side, then heaviest first")
+  void of_shouldSortInPackingOrder() {
+    OrderColumns order = OrderColumns.of(new OrderRequest(1, List.of(
+        new ProductRequest("small", new DimensionRequest(10, 10, 10)),
+        new ProductRequest("flat", new DimensionRequest(5, 20, 40)),
+        new ProductRequest("light", new DimensionRequest(10, 20, 20), 100),
+        new ProductRequest("heavy", new DimensionRequest(20, 20, 10), 500),
+        new ProductRequest("big", new DimensionRequest(30, 30, 30)))));
+
+    assertEquals(List.of("big", "flat", "heavy", "light", "small"), productIds(order));
+    assertEquals(27_000, order.volume(0));
+    assertEquals(500, order.weight(2));
+    assertEquals(0, order.weight(4));
+    assertEquals(20, order.height(2));
+    assertEquals(10, order.length(2));
+    assertEquals(10, order.smallestSide(2));
+    assertEquals(20, order.middleSide(2));
+    assertEquals(20, order.largestSide(2));
+  }
+
+  @Test
+  @DisplayName("Should keep the request order of identical products, like a stable sort")
+  void of_whenProductsAreIdenticalUpToRotation_shouldKeepRequestOrder() {
+    Random random = new Random(7);
+    List<ProductRequest> products = new ArrayList<>();
+    for (int i = 0; i < 300; i++) {
+      int[] sides = {1 + random.nextInt(4), 1 + random.nextInt(4), 1 + random.nextInt(4)};
+      products.add(new ProductRequest("p" + i, new DimensionRequest(sides[0], sides[1], sides[2]),
+          random.nextInt(3)));
+    }
+
+    OrderColumns order = OrderColumns.of(new OrderRequest(1, products));
+
+    List<String> expected = products.stream()
+        .sorted(Comparator.comparingLong(
+                (ProductRequest product) -> new Dimension(product.dimension().height(), product.dimension().width(),
+                    product.dimension().length()).volume()).reversed()
+            .thenComparingInt(product -> canonical(product)[0])
+            .thenComparingInt(product -> canonical(product)[1])
+            .thenComparing(Comparator.comparingInt(ProductRequest::weight).reversed()))
+        .map(ProductRequest::productId)
+        .toList();
+    assertEquals(expected, productIds(order));
+  }
+
+  @Test
+  @DisplayName("Should share one box compatibility between products of the same shape")
+  void compatibility_whenProductsHaveTheSameShape_shouldReuseTheLookup() {
+    BoxCatalog catalog = new BoxCatalog(List.of(
+        new BoxType("Box 1", new Dimension(30, 40, 80)),
+        new BoxType("Box 2", new Dimension(80, 50, 40))));
+    OrderColumns order = OrderColumns.of(new OrderRequest(1, List.of(
+        new ProductRequest("a", new DimensionRequest(10, 20, 30)),
+        new ProductRequest("b", new DimensionRequest(30, 10, 20)),
+        new ProductRequest("huge", new DimensionRequest(100, 100, 100)))));
+
+    assertTrue(order.sameShape(1, 2));
+    assertSame(order.compatibility(1, catalog), order.compatibility(2, catalog));
+    assertEquals(0, order.compatibility(1, catalog).smallestFittingIndex());
+    assertFalse(order.compatibility(0, catalog).fitsAny());
+  }
+
+  private static int[] canonical(ProductRequest product) {
+    var canonical = new Dimension(product.dimension().height(), product.dimension().width(),
+        product.dimension().length()).canonical();
+    return new int[]{canonical.smallest(), canonical.middle()};
+  }
+}
@@ -1,16 +1,32 @@
 package dev.genro.luan.packing_test.domain.service;
 
+import dev.genro.luan.packing_test.configuration.PackingExecutorConfiguration;
+import dev.genro.luan.packing_test.domain.model.BoxCatalog;
+import dev.genro.luan.packing_test.domain.model.BoxCatalogHolder;
 import dev.genro.luan.packing_test.domain.model.BoxType;
 import dev.genro.luan.packing_test.domain.model.Dimension;
+import dev.genro.luan.packing_test.exception.InvalidPackingRequestException;
+import dev.genro.luan.packing_test.exception.UnsupportedPackingAlgorithmException;
 import dev.genro.luan.packing_test.interfaces.dto.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -204,4 +220,511 @@ class PackagingServiceImplTest {
     assertTrue(orderBoxesResponse.boxes().stream().anyMatch(b -> b.boxId().equals(testBoxTypes.get(1).name()) && b.products().contains("itemC2")));
     assertTrue(orderBoxesResponse.boxes().stream().anyMatch(b -> b.boxId().equals(testBoxTypes.getFirst().name()) && b.products().contains("itemC1")));
   }
+
+  @Test
+  @DisplayName("Should keep the request order when orders are packed in parallel")
+  void packOrders_whenAboveParallelThreshold_shouldPreserveOrderSequence() {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      PackagingServiceImpl parallelService = new PackagingServiceImpl(new BoxCatalogHolder(new BoxCatalog(testBoxTypes)),
+          List.of(new FirstFitDecreasingStrategy()), FirstFitDecreasingStrategy.NAME, 0, executor, 2, 3, 0,
+          PackingResultCache.disabled(), PackingMetrics.disabled());
+      List<OrderRequest> orders = IntStream.rangeClosed(1, 50)
+          .mapToObj(id -> new OrderRequest(id, List.of(
+              createProductRequest("small-" + id, 10, 10, 10),
+              createProductRequest("large-" + id, 50, 79, 59))))
+          .toList();
+
+      OrdersResponse parallelResponse = parallelService.packOrders(new PackageOrderRequest(orders));
+      OrdersResponse sequentialResponse = packagingService.packOrders(new PackageOrderRequest(orders));
+
+      assertEquals(IntStream.rangeClosed(1, 50).boxed().toList(),
+          parallelResponse.orders().stream().map(OrderBoxesResponse::orderId).toList());
+      assertEquals(sequentialResponse, parallelResponse);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  @DisplayName("Should pack every chunk on the calling thread once the packing executor is shut down")
+  void packOrders_whenExecutorIsShutDown_shouldStillComplete() {
+    ExecutorService executor = new PackingExecutorConfiguration().packingExecutor(1, 1);
+    executor.shutdown();
+    PackagingServiceImpl parallelService = new PackagingServiceImpl(new BoxCatalogHolder(new BoxCatalog(testBoxTypes)),
+        List.of(new FirstFitDecreasingStrategy()), FirstFitDecreasingStrategy.NAME, 0, executor, 2, 3, 0,
+        PackingResultCache.disabled(), PackingMetrics.disabled());
+    List<OrderRequest> orders = IntStream.rangeClosed(1, 10)
+        .mapToObj(id -> new OrderRequest(id, List.of(createProductRequest("item-" + id, 10, 10, 10))))
+        .toList();
+
+    OrdersResponse response = assertTimeoutPreemptively(Duration.ofSeconds(10),
+        () -> parallelService.packOrders(new PackageOrderRequest(orders)));
+
+    assertEquals(packagingService.packOrders(new PackageOrderRequest(orders)), response);
+  }
+
+  @Test
+  @DisplayName("Should list equal-volume products by smallest side, then middle side, then heaviest first, whatever the request order")
+  void packOrders_whenProductsHaveEqualVolumes_shouldListThemInCanonicalOrder() {
+    ProductRequest cube = createProductRequest("cube", 20, 20, 10);
+    ProductRequest rod = createProductRequest("rod", 40, 10, 10);
+    ProductRequest light = new ProductRequest("light", new DimensionRequest(10, 10, 40), 1);
+    ProductRequest heavy = new ProductRequest("heavy", new DimensionRequest(10, 40, 10), 5);
+    List<ProductRequest> products = List.of(cube, light, rod, heavy);
+    List<ProductRequest> reversed = products.reversed();
+
+    PackedBoxResponse box = packagingService.packOrders(new PackageOrderRequest(List.of(new OrderRequest(1, products))))
+        .orders().getFirst().boxes().getFirst();
+    PackedBoxResponse reversedBox = packagingService.packOrders(
+        new PackageOrderRequest(List.of(new OrderRequest(1, reversed)))).orders().getFirst().boxes().getFirst();
+
+    // before the result cache, the box listed them in request order: cube, light, rod, heavy
+    assertEquals(List.of("heavy", "light", "rod", "cube"), box.products());
+    assertEquals(List.of("heavy", "light", "rod", "cube"), reversedBox.products());
+  }
+
+  @Test
+  @DisplayName("Should not leak packing state between orders of the same request")
+  void packOrders_whenOrdersShareWorkspace_shouldPackEachOrderIndependently() {
+    List<ProductRequest> manyProducts = IntStream.range(0, 40)
+        .mapToObj(i -> createProductRequest("item-" + i, 10, 10, 10))
+        .toList();
+    OrderRequest bigOrder = new OrderRequest(1, manyProducts);
+    OrderRequest smallOrder = new OrderRequest(2, List.of(createProductRequest("single", 10, 10, 10)));
+
+    OrdersResponse ordersResponse = packagingService.packOrders(new PackageOrderRequest(List.of(bigOrder, smallOrder)));
+
+    PackedBoxResponse bigBox = ordersResponse.orders().getFirst().boxes().getFirst();
+    assertEquals(manyProducts.stream().map(ProductRequest::productId).toList(), bigBox.products());
+
+    List<PackedBoxResponse> smallBoxes = ordersResponse.orders().get(1).boxes();
+    assertEquals(1, smallBoxes.size());
+    assertEquals(List.of("single"), smallBoxes.getFirst().products());
+  }
+
+  private PackagingServiceImpl serviceWithAllStrategies() {
+    return new PackagingServiceImpl(testBoxTypes, List.of(
+        new FirstFitDecreasingStrategy(),
+        new BestFitDecreasingStrategy(),
+        new WorstFitDecreasingStrategy(),
+        new ExactPackingStrategy(12, 200_000)), FirstFitDecreasingStrategy.NAME);
+  }
+
+  private List<String> productsOfBoxHolding(OrderBoxesResponse order, String productId) {
+    return order.boxes().stream()
+        .filter(box -> box.products().contains(productId))
+        .findFirst()
+        .orElseThrow()
+        .products();
+  }
+
+  @Test
+  @DisplayName("Should choose the open box according to the requested fit strategy")
+  void packOrders_whenFitStrategyIsRequested_shouldPickMatchingOpenBox() {
+    PackagingServiceImpl service = serviceWithAllStrategies();
+    OrderRequest orderRequest = new OrderRequest(9, List.of(
+        createProductRequest("loose", 50, 80, 55),
+        createProductRequest("tight", 79, 49, 39),
+        createProductRequest("rod", 10, 10, 50)));
+
+    OrderBoxesResponse firstFit = service.packOrders(
+        new PackageOrderRequest(List.of(orderRequest), FirstFitDecreasingStrategy.NAME)).orders().getFirst();
+    OrderBoxesResponse bestFit = service.packOrders(
+        new PackageOrderRequest(List.of(orderRequest), BestFitDecreasingStrategy.NAME)).orders().getFirst();
+    OrderBoxesResponse worstFit = service.packOrders(
+        new PackageOrderRequest(List.of(orderRequest), WorstFitDecreasingStrategy.NAME)).orders().getFirst();
+
+    assertEquals(List.of("loose", "rod"), productsOfBoxHolding(firstFit, "rod"));
+    assertEquals(List.of("tight", "rod"), productsOfBoxHolding(bestFit, "rod"));
+    assertEquals(List.of("loose", "rod"), productsOfBoxHolding(worstFit, "rod"));
+  }
+
+  @Test
+  @DisplayName("Should find a solution with fewer boxes than first-fit when the exact strategy is requested")
+  void packOrders_whenExactStrategyIsRequested_shouldMinimizeBoxCount() {
+    PackagingServiceImpl service = serviceWithAllStrategies();
+    OrderRequest orderRequest = new OrderRequest(10, List.of(
+        createProductRequest("a", 40, 50, 70),
+        createProductRequest("b", 30, 40, 70)));
+
+    OrderBoxesResponse firstFit = service.packOrders(new PackageOrderRequest(List.of(orderRequest))).orders().getFirst();
+    OrderBoxesResponse exact = service.packOrders(
+        new PackageOrderRequest(List.of(orderRequest), ExactPackingStrategy.NAME)).orders().getFirst();
+
+    assertEquals(2, firstFit.boxes().size());
+    assertEquals(1, exact.boxes().size());
+    assertEquals(testBoxTypes.get(2).name(), exact.boxes().getFirst().boxId());
+    assertEquals(List.of("a", "b"), exact.boxes().getFirst().products());
+  }
+
+  @Test
+  @DisplayName("Should reject an algorithm that is not registered")
+  void packOrders_whenAlgorithmIsUnknown_shouldThrow() {
+    PackageOrderRequest packageOrderRequest = new PackageOrderRequest(
+        List.of(new OrderRequest(11, List.of(createProductRequest("p", 10, 10, 10)))), "random");
+
+    assertThrows(UnsupportedPackingAlgorithmException.class, () -> packagingService.packOrders(packageOrderRequest));
+  }
+
+  @Test
+  @DisplayName("Should hand each packed order to the consumer before reading the next one")
+  void packOrderStream_shouldPackOrdersOneByOneInStreamOrder() {
+    Iterator<OrderRequest> source = List.of(
+        new OrderRequest(1, List.of(createProductRequest("a", 10, 10, 10))),
+        new OrderRequest(2, List.of(createProductRequest("b", 200, 200, 200)))).iterator();
+    List<OrderBoxesResponse> results = new ArrayList<>();
+    int[] ordersRead = {0};
+    Iterator<OrderRequest> orders = new Iterator<>() {
+      @Override
+      public boolean hasNext() {
+        return source.hasNext();
+      }
+
+      @Override
+      public OrderRequest next() {
+        assertEquals(ordersRead[0], results.size(), "previous order must be emitted before reading the next");
+        ordersRead[0]++;
+        return source.next();
+      }
+    };
+
+    packagingService.packOrderStream(orders, PackingOptions.defaults(), results::add);
+
+    assertEquals(List.of(1, 2), results.stream().map(OrderBoxesResponse::orderId).toList());
+    assertEquals(testBoxTypes.getFirst().name(), results.getFirst().boxes().getFirst().boxId());
+    assertNull(results.get(1).boxes().getFirst().boxId());
+  }
+
+  @Test
+  @DisplayName("Should attach a placement trace only when tracing is requested")
+  void packOrders_withTraceOption_shouldReturnPlacementTrace() {
+    OrderRequest orderRequest = new OrderRequest(1, List.of(
+        createProductRequest("small", 10, 10, 10),
+        createProductRequest("huge", 200, 200, 200)));
+    PackageOrderRequest packageOrderRequest = new PackageOrderRequest(List.of(orderRequest));
+
+    OrderBoxesResponse untraced = packagingService.packOrders(packageOrderRequest).orders().getFirst();
+    OrderBoxesResponse traced = packagingService.packOrders(packageOrderRequest, new PackingOptions(null, true))
+        .orders().getFirst();
+
+    assertNull(untraced.trace());
+    assertEquals(untraced.boxes(), traced.boxes());
+    PackingTraceResponse trace = traced.trace();
+    assertEquals(FirstFitDecreasingStrategy.NAME, trace.strategy());
+    assertEquals(List.of(
+        new PackingTraceResponse.Event("unpackable", null, null, "huge"),
+        new PackingTraceResponse.Event("opened", 0, testBoxTypes.getFirst().name(), null),
+        new PackingTraceResponse.Event("placed", 0, null, "small")), trace.events());
+  }
+
+  @Test
+  @DisplayName("Should reuse the cached layout of an identical order with the new product ids")
+  void packOrders_whenOrderRepeatsWithOtherIds_shouldReplayCachedLayout() {
+    PackingResultCache resultCache = new PackingResultCache(100);
+    PackagingServiceImpl cachedService = new PackagingServiceImpl(new BoxCatalogHolder(new BoxCatalog(testBoxTypes)),
+        List.of(new FirstFitDecreasingStrategy()), FirstFitDecreasingStrategy.NAME, 0, null, Integer.MAX_VALUE, 1, 0,
+        resultCache, PackingMetrics.disabled());
+    OrderRequest first = new OrderRequest(1, List.of(
+        createProductRequest("a", 10, 20, 30),
+        createProductRequest("b", 50, 79, 59),
+        createProductRequest("c", 200, 200, 200)));
+    OrderRequest rotated = new OrderRequest(2, List.of(
+        createProductRequest("z", 200, 200, 200),
+        createProductRequest("x", 30, 10, 20),
+        createProductRequest("y", 59, 50, 79)));
+
+    OrderBoxesResponse firstResult = cachedService.packOrders(new PackageOrderRequest(List.of(first))).orders().getFirst();
+    OrderBoxesResponse cachedResult = cachedService.packOrders(new PackageOrderRequest(List.of(rotated))).orders().getFirst();
+
+    assertEquals(1, resultCache.stats().hitCount());
+    assertEquals(1, resultCache.stats().missCount());
+    assertEquals(packagingService.packOrders(new PackageOrderRequest(List.of(rotated))).orders().getFirst(), cachedResult);
+    assertEquals(firstResult.boxes().size(), cachedResult.boxes().size());
+    assertEquals(List.of("y", "x"), cachedResult.boxes().getFirst().products());
+    assertEquals(List.of("z"), cachedResult.boxes().get(1).products());
+  }
+
+  @Test
+  @DisplayName("Should not cache the layout of a strategy whose budget ran out")
+  void packOrders_whenBudgetIsExceeded_shouldNotCacheLayout() {
+    PackingResultCache resultCache = new PackingResultCache(100);
+    PackagingServiceImpl cachedService = new PackagingServiceImpl(new BoxCatalogHolder(new BoxCatalog(testBoxTypes)),
+        List.of(new SpatialPackingStrategy(0), new ExactPackingStrategy(12, 0)), SpatialPackingStrategy.NAME,
+        0, null, Integer.MAX_VALUE, 1, 0, resultCache, PackingMetrics.disabled());
+    OrderRequest order = new OrderRequest(1, List.of(
+        createProductRequest("a", 50, 80, 60), createProductRequest("b", 50, 80, 60)));
+
+    for (String algorithm : List.of(SpatialPackingStrategy.NAME, ExactPackingStrategy.NAME)) {
+      PackageOrderRequest request = new PackageOrderRequest(List.of(order), algorithm, null);
+      cachedService.packOrders(request);
+      cachedService.packOrders(request);
+    }
+
+    assertEquals(0, resultCache.stats().hitCount());
+    assertEquals(4, resultCache.stats().missCount());
+    assertEquals(0, resultCache.size());
+  }
+
+  @Test
+  @DisplayName("Should never exceed the weight limit of a box, whatever the strategy")
+  void packOrders_whenBoxesHaveWeightLimits_shouldRespectThem() {
+    List<BoxType> weightedBoxes = List.of(
+        new BoxType("Light", new Dimension(30, 40, 80), 1_000, 1),
+        new BoxType("Heavy", new Dimension(50, 80, 60), 4_000, 5));
+    PackagingServiceImpl service = new PackagingServiceImpl(weightedBoxes, List.of(
+        new FirstFitDecreasingStrategy(),
+        new BestFitDecreasingStrategy(),
+        new WorstFitDecreasingStrategy(),
+        new ExactPackingStrategy(12, 200_000),
+        new CostOptimalPackingStrategy(24, 1_000)), FirstFitDecreasingStrategy.NAME);
+    OrderRequest orderRequest = new OrderRequest(11, List.of(
+        new ProductRequest("a", new DimensionRequest(10, 10, 10), 800),
+        new ProductRequest("b", new DimensionRequest(10, 10, 10), 800),
+        new ProductRequest("anvil", new DimensionRequest(10, 10, 10), 5_000)));
+
+    for (String algorithm : List.of(FirstFitDecreasingStrategy.NAME, BestFitDecreasingStrategy.NAME,
+        WorstFitDecreasingStrategy.NAME, CostOptimalPackingStrategy.NAME)) {
+      OrderBoxesResponse result = service.packOrders(new PackageOrderRequest(List.of(orderRequest), algorithm))
+          .orders().getFirst();
+      assertEquals(Arrays.asList("Light", "Light", null),
+          result.boxes().stream().map(PackedBoxResponse::boxId).toList(), algorithm);
+      assertEquals(List.of("anvil"), result.boxes().get(2).products(), algorithm);
+    }
+    OrderBoxesResponse exact = service.packOrders(new PackageOrderRequest(List.of(orderRequest), ExactPackingStrategy.NAME))
+        .orders().getFirst();
+    assertEquals(Arrays.asList("Heavy", null), exact.boxes().stream().map(PackedBoxResponse::boxId).toList());
+    assertEquals(List.of("a", "b"), exact.boxes().getFirst().products());
+  }
+
+  @Test
+  @DisplayName("Should pick the cheapest combination of boxes when the cost-optimal strategy is requested")
+  void packOrders_whenCostOptimalStrategyIsRequested_shouldMinimizeShippingCost() {
+    List<BoxType> pricedBoxes = List.of(
+        new BoxType("Box 1", new Dimension(30, 40, 80), 0, 4),
+        new BoxType("Box 2", new Dimension(80, 50, 40), 0, 6),
+        new BoxType("Box 3", new Dimension(50, 80, 60), 0, 5));
+    PackagingServiceImpl service = new PackagingServiceImpl(pricedBoxes, List.of(
+        new FirstFitDecreasingStrategy(),
+        new CostOptimalPackingStrategy(24, 1_000)), FirstFitDecreasingStrategy.NAME);
+    OrderRequest pair = new OrderRequest(12, List.of(
+        createProductRequest("a", 40, 50, 70),
+        createProductRequest("b", 30, 40, 70)));
+    OrderRequest single = new OrderRequest(13, List.of(createProductRequest("c", 10, 10, 10)));
+
+    List<OrderBoxesResponse> firstFit = service.packOrders(new PackageOrderRequest(List.of(pair, single))).orders();
+    List<OrderBoxesResponse> cheapest = service.packOrders(
+        new PackageOrderRequest(List.of(pair, single), CostOptimalPackingStrategy.NAME)).orders();
+
+    assertEquals(List.of("Box 2", "Box 1"), firstFit.getFirst().boxes().stream().map(PackedBoxResponse::boxId).toList());
+    assertEquals(1, cheapest.getFirst().boxes().size());
+    assertEquals("Box 3", cheapest.getFirst().boxes().getFirst().boxId());
+    assertEquals(List.of("a", "b"), cheapest.getFirst().boxes().getFirst().products());
+    assertEquals("Box 1", firstFit.get(1).boxes().getFirst().boxId());
+    assertEquals("Box 1", cheapest.get(1).boxes().getFirst().boxId());
+  }
+
+  @Test
+  @DisplayName("Should save the box first-fit wastes and report the search outcome when the anytime strategy is requested")
+  void packOrders_whenAnytimeStrategyIsRequested_shouldImproveOnFirstFit() {
+    PackagingServiceImpl service = new PackagingServiceImpl(List.of(new BoxType("Cube", new Dimension(10, 10, 10))),
+        List.of(new FirstFitDecreasingStrategy(), new AnytimePackingStrategy(20)), FirstFitDecreasingStrategy.NAME);
+    // First-fit pairs the two thick items and needs a third box for the last thin one; 4+3+3 twice fits in two.
+    OrderRequest order = new OrderRequest(14, List.of(
+        createProductRequest("thick1", 10, 10, 4), createProductRequest("thick2", 10, 10, 4),
+        createProductRequest("thin1", 10, 10, 3), createProductRequest("thin2", 10, 10, 3),
+        createProductRequest("thin3", 10, 10, 3), createProductRequest("thin4", 10, 10, 3)));
+    OrderRequest single = new OrderRequest(15, List.of(createProductRequest("only", 5, 5, 5)));
+
+    OrderBoxesResponse firstFit = service.packOrders(new PackageOrderRequest(List.of(order))).orders().getFirst();
+    List<OrderBoxesResponse> anytime = service.packOrders(
+        new PackageOrderRequest(List.of(order, single), AnytimePackingStrategy.NAME, 1_000L)).orders();
+
+    assertEquals(3, firstFit.boxes().size());
+    assertNull(firstFit.optimization());
+    assertEquals(2, anytime.getFirst().boxes().size());
+    anytime.getFirst().boxes().forEach(box -> {
+      assertEquals(3, box.products().size());
+      assertEquals(1, box.products().stream().filter(id -> id.startsWith("thick")).count());
+    });
+    assertEquals(new OptimizationResponse(1, true), anytime.getFirst().optimization());
+    assertEquals(new OptimizationResponse(0, true), anytime.get(1).optimization());
+  }
+
+  @Test
+  @DisplayName("Should report the search outcome even when the catalog is too wide for the anytime search")
+  void packOrders_whenCatalogIsTooWideForAnytime_shouldReportNoSavedBoxes() {
+    List<BoxType> boxTypes = new ArrayList<>();
+    for (int i = 1; i <= Long.SIZE + 1; i++) {
+      boxTypes.add(new BoxType("Box " + i, new Dimension(10, 10, 10 + i)));
+    }
+    PackagingServiceImpl service = new PackagingServiceImpl(boxTypes,
+        List.of(new FirstFitDecreasingStrategy(), new AnytimePackingStrategy(20)), FirstFitDecreasingStrategy.NAME);
+    OrderRequest order = new OrderRequest(16, List.of(
+        createProductRequest("a", 10, 10, 70), createProductRequest("b", 10, 10, 70)));
+
+    OrderBoxesResponse response = service.packOrders(
+        new PackageOrderRequest(List.of(order), AnytimePackingStrategy.NAME)).orders().getFirst();
+
+    assertEquals(2, response.boxes().size());
+    assertEquals(new OptimizationResponse(0, true), response.optimization());
+  }
+
+  @Test
+  @DisplayName("Should pack small orders with the exact strategy when the request does not choose an algorithm")
+  void packOrders_whenOrderIsBelowExactThreshold_shouldDispatchToExactStrategy() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    PackagingServiceImpl service = new PackagingServiceImpl(
+        new BoxCatalogHolder(new BoxCatalog(List.of(new BoxType("Cube", new Dimension(10, 10, 10))))),
+        List.of(new FirstFitDecreasingStrategy(), new ExactPackingStrategy(12, 200_000, 1_000)),
+        FirstFitDecreasingStrategy.NAME, 6, null, Integer.MAX_VALUE, 1, 0, PackingResultCache.disabled(),
+        new PackingMetrics(registry));
+    OrderRequest small = new OrderRequest(16, List.of(
+        createProductRequest("thick1", 10, 10, 4), createProductRequest("thick2", 10, 10, 4),
+        createProductRequest("thin1", 10, 10, 3), createProductRequest("thin2", 10, 10, 3),
+        createProductRequest("thin3", 10, 10, 3), createProductRequest("thin4", 10, 10, 3)));
+    OrderRequest large = new OrderRequest(17, Stream.concat(small.products().stream(),
+        Stream.of(createProductRequest("thin5", 10, 10, 3))).toList());
+
+    List<OrderBoxesResponse> dispatched = service.packOrders(new PackageOrderRequest(List.of(small, large))).orders();
+    OrderBoxesResponse firstFit = service.packOrders(
+        new PackageOrderRequest(List.of(small), FirstFitDecreasingStrategy.NAME)).orders().getFirst();
+    service.packOrders(new PackageOrderRequest(List.of(small)));
+
+    assertEquals(2, dispatched.getFirst().boxes().size());
+    dispatched.getFirst().boxes().forEach(box -> assertEquals(3, box.products().size()));
+    assertEquals(3, dispatched.get(1).boxes().size());
+    assertEquals(3, firstFit.boxes().size());
+    for (String strategy : List.of(ExactPackingStrategy.NAME + "+" + FirstFitDecreasingStrategy.NAME,
+        FirstFitDecreasingStrategy.NAME, ExactPackingStrategy.NAME)) {
+      assertEquals(1, registry.get("packing.request").tag("strategy", strategy).timer().count(), strategy);
+    }
+    assertEquals(2, registry.get("packing.order").tag("strategy", ExactPackingStrategy.NAME).timer().count());
+  }
+
+  @Test
+  @DisplayName("Should dispatch small orders to the exact strategy with the shipped configuration, unless the default checks positions")
+  void packOrders_whenDefaultConfigurationIsUsed_shouldDispatchOnlyVolumeOnlyDefaults() throws IOException {
+    Properties properties = PropertiesLoaderUtils.loadAllProperties("application.properties");
+    int autoMaxItems = Integer.parseInt(properties.getProperty("packing.exact.auto-max-items"));
+    ExactPackingStrategy exact = new ExactPackingStrategy(
+        Integer.parseInt(properties.getProperty("packing.exact.max-items")),
+        Long.parseLong(properties.getProperty("packing.exact.node-limit")), 1_000);
+    SpatialPackingStrategy spatial =
+        new SpatialPackingStrategy(Long.parseLong(properties.getProperty("packing.spatial.time-budget-ms")));
+    List<BoxType> cube = List.of(new BoxType("Cube", new Dimension(10, 10, 10)));
+    OrderRequest order = new OrderRequest(18, List.of(
+        createProductRequest("thick1", 10, 10, 4), createProductRequest("thick2", 10, 10, 4),
+        createProductRequest("thin1", 10, 10, 3), createProductRequest("thin2", 10, 10, 3),
+        createProductRequest("thin3", 10, 10, 3), createProductRequest("thin4", 10, 10, 3)));
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    PackagingServiceImpl volumeDefault = new PackagingServiceImpl(new BoxCatalogHolder(new BoxCatalog(cube)),
+        List.of(new FirstFitDecreasingStrategy(), spatial, exact),
+        properties.getProperty("packing.algorithm"), autoMaxItems, null, Integer.MAX_VALUE, 1, 0,
+        PackingResultCache.disabled(), new PackingMetrics(registry));
+    PackagingServiceImpl spatialDefault = new PackagingServiceImpl(new BoxCatalogHolder(new BoxCatalog(cube)),
+        List.of(new FirstFitDecreasingStrategy(), spatial, exact),
+        SpatialPackingStrategy.NAME, autoMaxItems, null, Integer.MAX_VALUE, 1, 0,
+        PackingResultCache.disabled(), new PackingMetrics(registry));
+
+    OrderBoxesResponse dispatched = volumeDefault.packOrders(new PackageOrderRequest(List.of(order))).orders().getFirst();
+    spatialDefault.packOrders(new PackageOrderRequest(List.of(order)));
+
+    assertTrue(autoMaxItems >= order.products().size());
+    assertEquals(2, dispatched.boxes().size());
+    assertEquals(1, registry.get("packing.order").tag("strategy", ExactPackingStrategy.NAME).timer().count());
+    assertEquals(1, registry.get("packing.order").tag("strategy", SpatialPackingStrategy.NAME).timer().count());
+    assertNull(registry.find("packing.order").tag("strategy", FirstFitDecreasingStrategy.NAME).timer());
+  }
+
+  @Test
+  @DisplayName("Should record per-order metrics with the unpackable products and the fill of every box")
+  void packOrders_whenMetricsAreEnabled_shouldRecordOrdersProductsAndBoxFill() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    PackagingServiceImpl service = new PackagingServiceImpl(new BoxCatalogHolder(new BoxCatalog(testBoxTypes)),
+        List.of(new FirstFitDecreasingStrategy()), FirstFitDecreasingStrategy.NAME, 0, null, Integer.MAX_VALUE, 1, 0,
+        PackingResultCache.disabled(), new PackingMetrics(registry));
+    OrderRequest full = new OrderRequest(1, List.of(createProductRequest("a", 30, 40, 80)));
+    OrderRequest mixed = new OrderRequest(2, List.of(
+        createProductRequest("b", 15, 40, 80), createProductRequest("huge", 100, 100, 100)));
+
+    service.packOrders(new PackageOrderRequest(List.of(full, mixed)));
+
+    String strategy = FirstFitDecreasingStrategy.NAME;
+    assertEquals(1, registry.get("packing.request").tag("strategy", strategy).timer().count());
+    assertEquals(2, registry.get("packing.order").tag("strategy", strategy).timer().count());
+    assertEquals(3, registry.get("packing.order.products").tag("strategy", strategy).summary().totalAmount());
+    assertEquals(2, registry.get("packing.order.boxes").tag("strategy", strategy).summary().totalAmount());
+    assertEquals(2, registry.get("packing.products").tags("strategy", strategy, "outcome", "packed").counter().count());
+    assertEquals(1,
+        registry.get("packing.products").tags("strategy", strategy, "outcome", "unpackable").counter().count());
+    var boxFill = registry.get("packing.box.fill").tag("box", "Box 1").summary();
+    assertEquals(2, boxFill.count());
+    assertEquals(1.0, boxFill.max(), 1e-9);
+    assertEquals(1.5, boxFill.totalAmount(), 1e-9);
+  }
+
+  @Test
+  @DisplayName("Should place an added product into the room left in a previous box")
+  void amendOrder_whenAddedProductFitsPreviousBox_shouldNotOpenBox() {
+    OrderAmendmentRequest amendment = new OrderAmendmentRequest(1,
+        List.of(new PackedBoxRequest("Box 2", List.of(createProductRequest("a", 40, 50, 40)))),
+        List.of(createProductRequest("b", 10, 10, 10)), null);
+
+    OrderBoxesResponse response = packagingService.amendOrder(amendment);
+
+    assertEquals(1, response.orderId());
+    assertEquals(List.of(new PackedBoxResponse("Box 2", List.of("a", "b"), null)), response.boxes());
+  }
+
+  @Test
+  @DisplayName("Should keep the previous boxes when a product is removed, dropping the ones left empty")
+  void amendOrder_whenProductsAreRemoved_shouldKeepOtherBoxes() {
+    OrderAmendmentRequest amendment = new OrderAmendmentRequest(2, List.of(
+        new PackedBoxRequest("Box 3", List.of(createProductRequest("big", 50, 80, 60))),
+        new PackedBoxRequest("Box 2", List.of(createProductRequest("a", 40, 50, 40), createProductRequest("c", 10, 10, 10))),
+        new PackedBoxRequest("Box 1", List.of(createProductRequest("d", 30, 40, 80)))),
+        null, List.of("big", "a"));
+
+    OrderBoxesResponse response = packagingService.amendOrder(amendment);
+
+    // packed from scratch, c would go into a box of its own type Box 1
+    assertEquals(List.of(
+        new PackedBoxResponse("Box 2", List.of("c"), null),
+        new PackedBoxResponse("Box 1", List.of("d"), null)), response.boxes());
+  }
+
+  @Test
+  @DisplayName("Should repack the products a previous box can no longer hold, and retry the unpackable ones")
+  void amendOrder_whenPreviousBoxIsOverfilled_shouldMoveProductsToOtherBoxes() {
+    OrderAmendmentRequest amendment = new OrderAmendmentRequest(3, List.of(
+        new PackedBoxRequest("Box 1", List.of(createProductRequest("a", 30, 40, 50), createProductRequest("b", 30, 40, 50))),
+        new PackedBoxRequest(null, List.of(createProductRequest("huge", 100, 100, 100)))),
+        List.of(createProductRequest("c", 10, 10, 10)), null);
+
+    OrderBoxesResponse response = packagingService.amendOrder(amendment);
+
+    assertEquals(List.of(
+        new PackedBoxResponse("Box 1", List.of("a", "c"), null),
+        new PackedBoxResponse("Box 1", List.of("b"), null),
+        new PackedBoxResponse(null, List.of("huge"), "Product does not fit in any available box.")), response.boxes());
+  }
+
+  @Test
+  @DisplayName("Should reject unknown box types and removed products that are not in the previous packing")
+  void amendOrder_whenAmendmentDoesNotMatchPackingOrCatalog_shouldThrow() {
+    OrderAmendmentRequest amendment = new OrderAmendmentRequest(4, List.of(
+        new PackedBoxRequest("Box 9", List.of(createProductRequest("a", 10, 10, 10))),
+        new PackedBoxRequest("Box 1", List.of(createProductRequest("b", 10, 10, 10)))),
+        null, List.of("b", "b", "z"));
+
+    InvalidPackingRequestException e = assertThrows(InvalidPackingRequestException.class,
+        () -> packagingService.amendOrder(amendment));
+
+    assertEquals(List.of(
+        new InputValidationResponse.InputValidationItem("boxes[0].boxId", List.of("Box type Box 9 is not available")),
+        new InputValidationResponse.InputValidationItem("removed", List.of(
+            "Product b is not in the previous packing", "Product z is not in the previous packing"))),
+        e.validations());
+  }
 }
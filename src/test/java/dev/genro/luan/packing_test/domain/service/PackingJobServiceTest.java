@@ -0,0 +1,231 @@
+package dev.genro.luan.packing_test.domain.service;
+
+import dev.genro.luan.packing_test.domain.model.BoxType;
+import dev.genro.luan.packing_test.domain.model.Dimension;
+import dev.genro.luan.packing_test.exception.PackingJobRejectedException;
+import dev.genro.luan.packing_test.exception.UnsupportedPackingAlgorithmException;
+import dev.genro.luan.packing_test.interfaces.dto.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackingJobServiceTest {
+
+  private static final long TTL_MS = 60_000;
+  private static final PackingOptions DEFAULT_OPTIONS = new PackingOptions(null, false);
+
+  private PackagingServiceImpl packagingService;
+  private ThreadPoolExecutor jobExecutor;
+  private AtomicLong nanos;
+  private PackingJobStore store;
+  private PackingJobService jobService;
+
+  @BeforeEach
+  void setUp() {
+    packagingService = new PackagingServiceImpl(List.of(
+        new BoxType("Box 1", new Dimension(30, 40, 80)),
+        new BoxType("Box 2", new Dimension(80, 50, 40)),
+        new BoxType("Box 3", new Dimension(50, 80, 60))));
+    jobExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1),
+        new ThreadPoolExecutor.AbortPolicy());
+    nanos = new AtomicLong();
+    store = new PackingJobStore(TTL_MS, 100, nanos::get);
+    jobService = new PackingJobService(packagingService, jobExecutor, store);
+  }
+
+  @AfterEach
+  void tearDown() {
+    jobExecutor.shutdownNow();
+  }
+
+  private PackageOrderRequest createRequest(int orderCount) {
+    List<OrderRequest> orders = new ArrayList<>();
+    for (int orderId = 1; orderId <= orderCount; orderId++) {
+      orders.add(new OrderRequest(orderId, List.of(
+          new ProductRequest("p%d-1".formatted(orderId), new DimensionRequest(10 + orderId % 20, 20, 30)),
+          new ProductRequest("p%d-2".formatted(orderId), new DimensionRequest(40, 30, 20)),
+          new ProductRequest("p%d-3".formatted(orderId), new DimensionRequest(100, 100, 100)))));
+    }
+    return new PackageOrderRequest(orders);
+  }
+
+  private PackingJob awaitFinished(PackingJob job) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (!job.finished()) {
+      assertTrue(System.nanoTime() < deadline, "Job did not finish in time");
+      Thread.sleep(5);
+    }
+    return job;
+  }
+
+  private CountDownLatch blockWorker() throws InterruptedException {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    jobExecutor.execute(() -> {
+      started.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    started.await();
+    return release;
+  }
+
+  @Test
+  @DisplayName("A completed job should hold the same results as the synchronous endpoint")
+  void submit_whenJobCompletes_shouldMatchSynchronousResults() throws InterruptedException {
+    PackageOrderRequest request = createRequest(50);
+
+    PackingJob job = awaitFinished(jobService.submit(request, DEFAULT_OPTIONS));
+
+    assertEquals(PackingJob.Status.COMPLETED, job.status());
+    assertEquals(50, job.totalOrders());
+    assertEquals(50, job.packedOrders());
+    assertNotNull(job.finishedAt());
+    assertNull(job.error());
+    assertEquals(packagingService.packOrders(request).orders(), job.results());
+    assertSame(job, jobService.find(job.id()).orElseThrow());
+  }
+
+  @Test
+  @DisplayName("A queued job should report its status and no results yet")
+  void submit_whenWorkerIsBusy_shouldStayQueued() throws InterruptedException {
+    CountDownLatch release = blockWorker();
+
+    PackingJob job = jobService.submit(createRequest(3), DEFAULT_OPTIONS);
+
+    assertEquals(PackingJob.Status.QUEUED, job.status());
+    assertEquals(0, job.packedOrders());
+    assertTrue(job.results().isEmpty());
+    release.countDown();
+    assertEquals(PackingJob.Status.COMPLETED, awaitFinished(job).status());
+    assertEquals(3, job.results().size());
+  }
+
+  @Test
+  @DisplayName("A job should be rejected and not stored when the queue is full")
+  void submit_whenQueueIsFull_shouldReject() throws InterruptedException {
+    CountDownLatch release = blockWorker();
+    PackingJob queued = jobService.submit(createRequest(1), DEFAULT_OPTIONS);
+
+    assertThrows(PackingJobRejectedException.class,
+        () -> jobService.submit(createRequest(1), DEFAULT_OPTIONS));
+    assertEquals(1, store.size());
+
+    release.countDown();
+    assertEquals(PackingJob.Status.COMPLETED, awaitFinished(queued).status());
+  }
+
+  @Test
+  @DisplayName("An unknown algorithm should be rejected before the job is queued")
+  void submit_whenAlgorithmIsUnknown_shouldThrow() {
+    assertThrows(UnsupportedPackingAlgorithmException.class,
+        () -> jobService.submit(createRequest(1), new PackingOptions("unknown-algorithm", false)));
+    assertEquals(0, store.size());
+  }
+
+  @Test
+  @DisplayName("A finished job should expire once its time to live has passed")
+  void find_whenFinishedJobOutlivesTtl_shouldBeEvicted() throws InterruptedException {
+    PackingJob job = awaitFinished(jobService.submit(createRequest(2), DEFAULT_OPTIONS));
+    // the worker stores the job again right after finishing it, which starts its time to live
+    awaitWorkerIdle();
+
+    nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(TTL_MS - 1));
+    assertTrue(jobService.find(job.id()).isPresent());
+    nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(2));
+    assertTrue(jobService.find(job.id()).isEmpty());
+  }
+
+  @Test
+  @DisplayName("A queued job should not expire however long it waits")
+  void find_whenJobIsQueued_shouldNotExpire() throws InterruptedException {
+    CountDownLatch release = blockWorker();
+    PackingJob job = jobService.submit(createRequest(1), DEFAULT_OPTIONS);
+
+    nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(TTL_MS * 10));
+
+    assertTrue(jobService.find(job.id()).isPresent());
+    release.countDown();
+    awaitFinished(job);
+  }
+
+  @Test
+  @DisplayName("Queued jobs beyond the finished job limit should be accepted and never evicted")
+  void submit_whenMoreJobsAreLiveThanFinishedJobsKept_shouldKeepEveryLiveJob() throws InterruptedException {
+    ThreadPoolExecutor roomyExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(10), new ThreadPoolExecutor.AbortPolicy());
+    PackingJobStore smallStore = new PackingJobStore(TTL_MS, 1, nanos::get);
+    PackingJobService service = new PackingJobService(packagingService, roomyExecutor, smallStore);
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    roomyExecutor.execute(() -> {
+      started.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    started.await();
+    try {
+      List<PackingJob> queued = new ArrayList<>();
+      for (int i = 0; i < 3; i++) {
+        queued.add(service.submit(createRequest(1), DEFAULT_OPTIONS));
+      }
+
+      for (PackingJob job : queued) {
+        assertSame(job, service.find(job.id()).orElseThrow());
+      }
+      release.countDown();
+      for (PackingJob job : queued) {
+        assertEquals(PackingJob.Status.COMPLETED, awaitFinished(job).status());
+      }
+      roomyExecutor.shutdown();
+      assertTrue(roomyExecutor.awaitTermination(10, TimeUnit.SECONDS));
+    } finally {
+      roomyExecutor.shutdownNow();
+    }
+  }
+
+  @Test
+  @DisplayName("A job whose worker hits an Error should be marked failed and start its time to live")
+  void submit_whenPackingThrowsError_shouldMarkJobFailed() throws InterruptedException {
+    PackagingServiceImpl failingService = new PackagingServiceImpl(List.of(new BoxType("Box 1", new Dimension(30, 40, 80)))) {
+      @Override
+      public void packOrderStream(Iterator<OrderRequest> orders, PackingOptions options,
+                                  Consumer<OrderBoxesResponse> consumer) {
+        throw new StackOverflowError("too deep");
+      }
+    };
+    PackingJobService service = new PackingJobService(failingService, jobExecutor, store);
+
+    PackingJob job = awaitFinished(service.submit(createRequest(1), DEFAULT_OPTIONS));
+    awaitWorkerIdle();
+
+    assertEquals(PackingJob.Status.FAILED, job.status());
+    assertEquals("too deep", job.error());
+    nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(TTL_MS + 1));
+    assertTrue(service.find(job.id()).isEmpty());
+  }
+
+  private void awaitWorkerIdle() throws InterruptedException {
+    jobExecutor.shutdown();
+    assertTrue(jobExecutor.awaitTermination(10, TimeUnit.SECONDS));
+  }
+}
@@ -0,0 +1,191 @@
+package dev.genro.luan.packing_test.domain.service;
+
+import dev.genro.luan.packing_test.domain.model.BoxCatalog;
+import dev.genro.luan.packing_test.domain.model.BoxType;
+import dev.genro.luan.packing_test.domain.model.Dimension;
+import dev.genro.luan.packing_test.interfaces.dto.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpatialPackingStrategyTest {
+
+  private PackagingServiceImpl spatialService;
+  private PackagingServiceImpl volumeService;
+  private List<BoxType> testBoxTypes;
+
+  @BeforeEach
+  void setUp() {
+    testBoxTypes = Stream.of(
+        new BoxType("Box 1", new Dimension(30, 40, 80)),
+        new BoxType("Box 2", new Dimension(80, 50, 40)),
+        new BoxType("Box 3", new Dimension(50, 80, 60))
+    ).sorted(Comparator.comparingLong(BoxType::volume)).toList();
+
+    spatialService = spatialService(1_000);
+    volumeService = new PackagingServiceImpl(testBoxTypes);
+  }
+
+  private PackagingServiceImpl spatialService(long timeBudgetMs) {
+    return new PackagingServiceImpl(testBoxTypes, List.of(new SpatialPackingStrategy(timeBudgetMs)), SpatialPackingStrategy.NAME);
+  }
+
+  private ProductRequest createProductRequest(String id, int h, int w, int l) {
+    return new ProductRequest(id, new DimensionRequest(h, w, l));
+  }
+
+  @Test
+  @DisplayName("Should not combine products that fit by volume but not physically")
+  void packOrders_whenProductsOnlyFitByVolume_shouldOpenSecondBox() {
+    OrderRequest orderRequest = new OrderRequest(1, List.of(
+        createProductRequest("block", 30, 40, 45),
+        createProductRequest("rod", 10, 10, 50)));
+    PackageOrderRequest packageOrderRequest = new PackageOrderRequest(List.of(orderRequest));
+
+    OrderBoxesResponse volumeResult = volumeService.packOrders(packageOrderRequest).orders().getFirst();
+    OrderBoxesResponse spatialResult = spatialService.packOrders(packageOrderRequest).orders().getFirst();
+
+    assertEquals(1, volumeResult.boxes().size());
+    assertEquals(2, spatialResult.boxes().size());
+    assertEquals(List.of("block"), spatialResult.boxes().getFirst().products());
+    assertEquals(List.of("rod"), spatialResult.boxes().get(1).products());
+  }
+
+  @Test
+  @DisplayName("Should fill a box completely when the products tile it exactly")
+  void packOrders_whenProductsTileTheBox_shouldUseSingleBox() {
+    List<ProductRequest> slices = IntStream.range(0, 4)
+        .mapToObj(i -> createProductRequest("slice-" + i, 30, 40, 20))
+        .toList();
+    OrderRequest orderRequest = new OrderRequest(2, slices);
+
+    OrderBoxesResponse result = spatialService.packOrders(new PackageOrderRequest(List.of(orderRequest)))
+        .orders().getFirst();
+
+    assertEquals(1, result.boxes().size());
+    assertEquals(testBoxTypes.getFirst().name(), result.boxes().getFirst().boxId());
+    assertEquals(4, result.boxes().getFirst().products().size());
+  }
+
+  @Test
+  @DisplayName("Should keep packing into the last open box once the time budget is exhausted")
+  void packOrders_whenBudgetIsExhausted_shouldStillPackEveryProduct() {
+    PackagingServiceImpl noBudgetService = spatialService(0);
+    List<ProductRequest> products = IntStream.range(0, 3)
+        .mapToObj(i -> createProductRequest("item-" + i, 10, 10, 10))
+        .toList();
+
+    OrderBoxesResponse result = noBudgetService.packOrders(new PackageOrderRequest(List.of(new OrderRequest(3, products))))
+        .orders().getFirst();
+
+    assertEquals(List.of(new PackedBoxResponse(testBoxTypes.getFirst().name(),
+        List.of("item-0", "item-1", "item-2"), null)), result.boxes());
+  }
+
+  @Test
+  @DisplayName("Should only build layouts that can be placed without overlaps when the budget is spent")
+  void pack_whenBudgetIsExhausted_shouldKeepEveryBoxPlaceable() {
+    SpatialPackingStrategy noBudget = new SpatialPackingStrategy(0);
+    BoxCatalog catalog = new BoxCatalog(testBoxTypes);
+    Random random = new Random(7);
+    for (int round = 0; round < 100; round++) {
+      List<ProductRequest> products = new ArrayList<>();
+      for (int i = 0; i < 10 + random.nextInt(30); i++) {
+        products.add(createProductRequest("p" + i, 5 + random.nextInt(41), 5 + random.nextInt(41),
+            5 + random.nextInt(41)));
+      }
+      OrderColumns order = OrderColumns.of(new OrderRequest(round + 1, products));
+      PackingWorkspace workspace = new PackingWorkspace();
+      workspace.reset(catalog);
+
+      noBudget.pack(order, catalog, workspace);
+
+      assertTrue(workspace.budgetExceeded());
+      int packed = workspace.unpackableCount();
+      for (int box = 0; box < workspace.boxCount(); box++) {
+        // replays the box in placement order; the placements themselves never overlap, see below
+        ExtremePointBox replay = new ExtremePointBox(workspace.boxType(box));
+        for (int position = 0; position < workspace.productCount(box); position++) {
+          int product = workspace.productAt(box, position);
+          assertTrue(replay.tryPlace(order.height(product), order.width(product), order.length(product),
+              order.volume(product)), "product %d has no free position in box %d".formatted(product, box));
+          packed++;
+        }
+      }
+      assertEquals(order.size(), packed);
+    }
+  }
+
+  @Test
+  @DisplayName("Should keep every placement inside its box and clear of the others")
+  void tryPlace_whenProductsAreRandom_shouldNeverOverlapOrLeaveTheBox() {
+    Random random = new Random(3);
+    for (BoxType boxType : testBoxTypes) {
+      for (int round = 0; round < 200; round++) {
+        ExtremePointBox box = new ExtremePointBox(boxType);
+        List<int[]> placedSides = new ArrayList<>();
+        long placedVolume = 0;
+        for (int attempt = 0; attempt < 40; attempt++) {
+          int height = 1 + random.nextInt(40);
+          int width = 1 + random.nextInt(40);
+          int length = 1 + random.nextInt(40);
+          long volume = (long) height * width * length;
+          if (box.tryPlace(height, width, length, volume)) {
+            placedSides.add(new int[]{height, width, length});
+            placedVolume += volume;
+          }
+        }
+
+        assertEquals(placedSides.size(), box.itemCount());
+        assertEquals(boxType.volume() - placedVolume, box.remainingVolume());
+        Dimension size = boxType.dimension();
+        for (int i = 0; i < box.itemCount(); i++) {
+          int[] placement = box.placement(i);
+          assertTrue(placement[0] >= 0 && placement[0] + placement[3] <= size.length());
+          assertTrue(placement[1] >= 0 && placement[1] + placement[4] <= size.width());
+          assertTrue(placement[2] >= 0 && placement[2] + placement[5] <= size.height());
+          int[] placed = {placement[3], placement[4], placement[5]};
+          int[] sides = placedSides.get(i).clone();
+          Arrays.sort(placed);
+          Arrays.sort(sides);
+          assertArrayEquals(sides, placed, "item %d is a rotation of the product".formatted(i));
+          for (int j = 0; j < i; j++) {
+            assertFalse(overlap(placement, box.placement(j)), "items %d and %d overlap".formatted(i, j));
+          }
+        }
+      }
+    }
+  }
+
+  private static boolean overlap(int[] first, int[] second) {
+    for (int axis = 0; axis < 3; axis++) {
+      if (first[axis] >= second[axis] + second[axis + 3] || second[axis] >= first[axis] + first[axis + 3]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Test
+  @DisplayName("Should report products that do not fit any empty box")
+  void packOrders_whenProductIsTooLarge_shouldReturnSpecialEntry() {
+    OrderRequest orderRequest = new OrderRequest(4, List.of(createProductRequest("hugeP", 100, 100, 100)));
+
+    OrderBoxesResponse result = spatialService.packOrders(new PackageOrderRequest(List.of(orderRequest)))
+        .orders().getFirst();
+
+    PackedBoxResponse specialEntry = result.boxes().getFirst();
+    assertNull(specialEntry.boxId());
+    assertEquals("Product does not fit in any available box.", specialEntry.observation());
+  }
+}
@@ -0,0 +1,157 @@
+package dev.genro.luan.packing_test.interfaces.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.genro.luan.packing_test.domain.model.BoxType;
+import dev.genro.luan.packing_test.domain.model.Dimension;
+import dev.genro.luan.packing_test.domain.service.PackagingService;
+import dev.genro.luan.packing_test.domain.service.PackagingServiceImpl;
+import dev.genro.luan.packing_test.domain.service.PackingOptions;
+import dev.genro.luan.packing_test.interfaces.dto.*;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NdjsonOrderStreamTest {
+
+  private static final String VALID_ORDER =
+      "{\"order_id\": %d, \"products\": [{\"product_id\": \"p%d\", \"dimension\": {\"height\": 10, \"width\": 10, \"length\": 10}}]}";
+  private static final String INVALID_ORDER =
+      "{\"order_id\": -1, \"products\": [{\"product_id\": \"p\", \"dimension\": {\"height\": 0, \"width\": 10, \"length\": 10}}]}";
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private PackagingService packagingService;
+  private MockHttpServletResponse response;
+
+  @BeforeEach
+  void setUp() {
+    packagingService = new PackagingServiceImpl(List.of(new BoxType("Box 1", new Dimension(30, 40, 80))));
+    response = new MockHttpServletResponse();
+  }
+
+  private List<JsonNode> process(PackagingService service, String... lines) throws IOException {
+    byte[] body = String.join("\n", lines).getBytes(StandardCharsets.UTF_8);
+    new NdjsonOrderStream(objectMapper, Validation.buildDefaultValidatorFactory().getValidator(), response)
+        .process(new ByteArrayInputStream(body), service, new PackingOptions(null, false));
+    List<JsonNode> output = new ArrayList<>();
+    for (String line : response.getContentAsString().split("\n")) {
+      output.add(objectMapper.readTree(line));
+    }
+    return output;
+  }
+
+  @Test
+  @DisplayName("Should write and flush one result line per order before packing the next one")
+  void process_whenOrdersAreValid_shouldFlushOneLinePerOrder() throws IOException {
+    List<Integer> linesSeenAfterEachOrder = new ArrayList<>();
+    PackagingService observedService = new DelegatingPackagingService(packagingService) {
+      @Override
+      public void packOrderStream(Iterator<OrderRequest> orders, PackingOptions options,
+                                  Consumer<OrderBoxesResponse> consumer) {
+        super.packOrderStream(orders, options, result -> {
+          consumer.accept(result);
+          linesSeenAfterEachOrder.add(lineCount());
+        });
+      }
+    };
+
+    List<JsonNode> lines = process(observedService, VALID_ORDER.formatted(1, 1), VALID_ORDER.formatted(2, 2),
+        VALID_ORDER.formatted(3, 3));
+
+    assertEquals(200, response.getStatus());
+    assertEquals(List.of(1, 2, 3), linesSeenAfterEachOrder);
+    assertEquals(3, lines.size());
+    for (int i = 0; i < lines.size(); i++) {
+      assertEquals(i + 1, lines.get(i).get("order_id").asInt());
+      assertEquals("p" + (i + 1), lines.get(i).get("boxes").get(0).get("products").get(0).asText());
+    }
+  }
+
+  @Test
+  @DisplayName("Should write a validation line for an invalid order and keep packing the stream")
+  void process_whenOrderIsInvalid_shouldWriteValidationLineAndContinue() throws IOException {
+    List<JsonNode> lines = process(packagingService, VALID_ORDER.formatted(1, 1), INVALID_ORDER,
+        VALID_ORDER.formatted(3, 3));
+
+    assertEquals(200, response.getStatus());
+    assertEquals(3, lines.size());
+    assertEquals(1, lines.get(0).get("order_id").asInt());
+    List<String> fields = new ArrayList<>();
+    lines.get(1).get("validations").forEach(item -> fields.add(item.get("field").asText()));
+    assertEquals(List.of("orders[1].orderId", "orders[1].products[0].dimension.height"), fields.stream().sorted().toList());
+    assertEquals(3, lines.get(2).get("order_id").asInt());
+  }
+
+  @Test
+  @DisplayName("Should answer 400 when the first order is invalid or unreadable")
+  void process_whenFirstLineIsInvalid_shouldAnswerBadRequest() throws IOException {
+    List<JsonNode> lines = process(packagingService, INVALID_ORDER, VALID_ORDER.formatted(2, 2));
+
+    assertEquals(400, response.getStatus());
+    assertEquals(2, lines.size());
+    assertTrue(lines.get(0).has("validations"));
+    assertEquals(2, lines.get(1).get("order_id").asInt());
+
+    response = new MockHttpServletResponse();
+    List<JsonNode> unreadable = process(packagingService, "{\"order_id\": ");
+
+    assertEquals(400, response.getStatus());
+    assertEquals(1, unreadable.size());
+    assertEquals("Request body informed is invalid, not able to parse as JSON.",
+        unreadable.getFirst().get("validations").get(0).get("messages").get(0).asText());
+  }
+
+  private int lineCount() {
+    try {
+      return (int) response.getContentAsString().chars().filter(c -> c == '\n').count();
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static class DelegatingPackagingService implements PackagingService {
+    private final PackagingService delegate;
+
+    private DelegatingPackagingService(PackagingService delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public OrdersResponse packOrders(PackageOrderRequest orderRequests) {
+      return delegate.packOrders(orderRequests);
+    }
+
+    @Override
+    public OrdersResponse packOrders(PackageOrderRequest orderRequests, PackingOptions options) {
+      return delegate.packOrders(orderRequests, options);
+    }
+
+    @Override
+    public void packOrderStream(Iterator<OrderRequest> orders, PackingOptions options,
+                                Consumer<OrderBoxesResponse> consumer) {
+      delegate.packOrderStream(orders, options, consumer);
+    }
+
+    @Override
+    public OrderBoxesResponse amendOrder(OrderAmendmentRequest amendment) {
+      return delegate.amendOrder(amendment);
+    }
+
+    @Override
+    public boolean supportsAlgorithm(String algorithm) {
+      return delegate.supportsAlgorithm(algorithm);
+    }
+  }
+}
@@ -0,0 +1,127 @@
+package dev.genro.luan.packing_test.interfaces.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import dev.genro.luan.packing_test.exception.InvalidPackingRequestException;
+import dev.genro.luan.packing_test.interfaces.dto.*;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackageOrderRequestDeserializerTest {
+
+  private static final String INVALID_PAYLOAD = """
+      {
+        "time_budget_ms": 0,
+        "orders": [
+          {"order_id": -1, "products": []},
+          {"order_id": 2, "products": [
+            {"dimension": {"height": 0, "width": 10, "length": -5}, "weight": -3},
+            {"product_id": "ok", "dimension": {"height": 10, "width": 10, "length": 10}},
+            {"product_id": "no-dimension"}
+          ]},
+          {"products": null}
+        ]
+      }
+      """;
+
+  private ObjectMapper streamingMapper;
+  private ObjectMapper bindingMapper;
+  private Validator validator;
+
+  @BeforeEach
+  void setUp() {
+    // unknown properties are ignored, as with the application's mapper
+    streamingMapper = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+        .registerModule(new SimpleModule()
+            .addDeserializer(PackageOrderRequest.class, new PackageOrderRequestDeserializer()));
+    bindingMapper = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    validator = Validation.buildDefaultValidatorFactory().getValidator();
+  }
+
+  @Test
+  @DisplayName("Should read the same request as reflective binding")
+  void deserialize_whenPayloadIsValid_shouldMatchDataBinding() throws JsonProcessingException {
+    String payload = """
+        {
+          "algorithm": "best-fit-decreasing",
+          "time_budget_ms": 25,
+          "ignored": {"nested": [1, 2]},
+          "orders": [
+            {"order_id": 1, "products": [
+              {"product_id": "PS5", "dimension": {"height": 40, "width": 10, "length": 25}, "weight": 4500},
+              {"product_id": 7, "dimension": {"height": "30", "width": 30, "length": 30}}
+            ]}
+          ]
+        }
+        """;
+
+    PackageOrderRequest request = streamingMapper.readValue(payload, PackageOrderRequest.class);
+
+    assertEquals(bindingMapper.readValue(payload, PackageOrderRequest.class), request);
+    assertEquals(new ProductRequest("7", new DimensionRequest(30, 30, 30)), request.orders().get(0).products().get(1));
+  }
+
+  @Test
+  @DisplayName("Should report the same fields and messages as Bean Validation")
+  void deserialize_whenPayloadIsInvalid_shouldMatchBeanValidation() throws JsonProcessingException {
+    InvalidPackingRequestException e = assertThrows(InvalidPackingRequestException.class,
+        () -> streamingMapper.readValue(INVALID_PAYLOAD, PackageOrderRequest.class));
+
+    Map<String, List<String>> expected = new TreeMap<>(
+        validator.validate(bindingMapper.readValue(INVALID_PAYLOAD, PackageOrderRequest.class)).stream()
+            .collect(Collectors.groupingBy(violation -> violation.getPropertyPath().toString(),
+                Collectors.mapping(ConstraintViolation::getMessage, Collectors.toList()))));
+    Map<String, List<String>> actual = new TreeMap<>(e.validations().stream()
+        .collect(Collectors.toMap(InputValidationResponse.InputValidationItem::field,
+            InputValidationResponse.InputValidationItem::messages)));
+    assertEquals(9, expected.size());
+    assertEquals(expected, actual);
+  }
+
+  @Test
+  @DisplayName("Should reject a request without orders")
+  void deserialize_whenOrdersAreMissing_shouldReportOrders() {
+    InvalidPackingRequestException e = assertThrows(InvalidPackingRequestException.class,
+        () -> streamingMapper.readValue("{\"algorithm\": \"spatial\"}", PackageOrderRequest.class));
+
+    assertEquals(List.of(new InputValidationResponse.InputValidationItem("orders", List.of("Orders must be informed"))),
+        e.validations());
+  }
+
+  @Test
+  @DisplayName("Should fail to parse values of the wrong shape like reflective binding")
+  void deserialize_whenValueHasWrongShape_shouldFailToParse() {
+    assertThrows(JsonProcessingException.class,
+        () -> streamingMapper.readValue("{\"orders\": {\"order_id\": 1}}", PackageOrderRequest.class));
+    assertThrows(JsonProcessingException.class, () -> streamingMapper.readValue(
+        "{\"orders\": [{\"order_id\": 1, \"products\": [{\"product_id\": \"p\", \"dimension\": [1, 2, 3]}]}]}",
+        PackageOrderRequest.class));
+    assertThrows(JsonProcessingException.class, () -> streamingMapper.readValue(
+        "{\"orders\": [{\"order_id\": \"one\", \"products\": []}]}", PackageOrderRequest.class));
+  }
+
+  @Test
+  @DisplayName("Should read binary encodings through the same deserializer")
+  void deserialize_whenBodyIsSmile_shouldReadTheSameRequest() throws Exception {
+    ObjectMapper smileMapper = new SmileMapper().registerModule(new SimpleModule()
+        .addDeserializer(PackageOrderRequest.class, new PackageOrderRequestDeserializer()));
+    PackageOrderRequest request = new PackageOrderRequest(List.of(new OrderRequest(3, List.of(
+        new ProductRequest("p", new DimensionRequest(10, 20, 30), 100)))), "spatial", 40L);
+
+    assertEquals(request, smileMapper.readValue(smileMapper.writeValueAsBytes(request), PackageOrderRequest.class));
+  }
+}
@@ -0,0 +1,144 @@
+package dev.genro.luan.packing_test.interfaces.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import dev.genro.luan.packing_test.configuration.BinaryFormatConfiguration;
+import dev.genro.luan.packing_test.domain.model.BoxType;
+import dev.genro.luan.packing_test.domain.model.Dimension;
+import dev.genro.luan.packing_test.domain.service.PackagingServiceImpl;
+import dev.genro.luan.packing_test.exception.GlobalExceptionHandler;
+import dev.genro.luan.packing_test.interfaces.dto.InputValidationResponse;
+import dev.genro.luan.packing_test.interfaces.dto.PackageOrderRequest;
+import dev.genro.luan.packing_test.interfaces.dto.ValidationMessages;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class PackagingControllerTest {
+
+  private static final String PS5 =
+      "{\"product_id\": \"PS5\", \"dimension\": {\"height\": 40, \"width\": 10, \"length\": 25}}";
+
+  private static final String INVALID_OPTIMIZE_REQUEST = """
+      {"orders": [{"order_id": -1, "products": [
+        {"product_id": "PS5", "dimension": {"height": 0, "width": 10, "length": 25}}
+      ]}]}
+      """;
+
+  private MockMvc mockMvc;
+
+  @BeforeEach
+  void setUp() {
+    // the converters of the application: its Jackson builder, with the streaming request
+    // deserializer registered as @JsonComponent does, plus the Smile converter built from it
+    Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+        .deserializerByType(PackageOrderRequest.class, new PackageOrderRequestDeserializer());
+    ObjectMapper objectMapper = builder.build();
+    PackagingController controller = new PackagingController(
+        new PackagingServiceImpl(List.of(new BoxType("Box 1", new Dimension(30, 40, 80)))), objectMapper,
+        Validation.buildDefaultValidatorFactory().getValidator());
+    mockMvc = MockMvcBuilders.standaloneSetup(controller)
+        .setControllerAdvice(new GlobalExceptionHandler())
+        .setMessageConverters(new MappingJackson2HttpMessageConverter(objectMapper),
+            new BinaryFormatConfiguration().smileHttpMessageConverter(builder))
+        .build();
+  }
+
+  @Test
+  @DisplayName("Should answer 400 with every violation of an invalid JSON body")
+  void optimizePackaging_whenJsonBodyIsInvalid_shouldAnswerBadRequest() throws Exception {
+    mockMvc.perform(post("/api/v1/packaging/optimize").contentType(MediaType.APPLICATION_JSON)
+            .content(INVALID_OPTIMIZE_REQUEST))
+        .andExpect(status().isBadRequest())
+        .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+        .andExpect(jsonPath("$.validations[*].field",
+            containsInAnyOrder("orders[0].orderId", "orders[0].products[0].dimension.height")))
+        .andExpect(jsonPath("$.validations[?(@.field == 'orders[0].orderId')].messages[0]")
+            .value(ValidationMessages.ORDER_ID_POSITIVE));
+  }
+
+  @Test
+  @DisplayName("Should answer 400 with every violation of an invalid Smile body")
+  void optimizePackaging_whenSmileBodyIsInvalid_shouldAnswerBadRequest() throws Exception {
+    byte[] smile = new SmileMapper().writeValueAsBytes(new ObjectMapper().readTree(INVALID_OPTIMIZE_REQUEST));
+
+    byte[] response = mockMvc.perform(post("/api/v1/packaging/optimize")
+            .contentType(BinaryFormatConfiguration.APPLICATION_SMILE_VALUE)
+            .accept(BinaryFormatConfiguration.APPLICATION_SMILE_VALUE)
+            .content(smile))
+        .andExpect(status().isBadRequest())
+        .andExpect(content().contentTypeCompatibleWith(BinaryFormatConfiguration.APPLICATION_SMILE_VALUE))
+        .andReturn().getResponse().getContentAsByteArray();
+
+    InputValidationResponse validation = new SmileMapper().readValue(response, InputValidationResponse.class);
+    assertEquals(List.of("orders[0].orderId", "orders[0].products[0].dimension.height"),
+        validation.validations().stream().map(InputValidationResponse.InputValidationItem::field).sorted().toList());
+    assertEquals(List.of(ValidationMessages.HEIGHT_POSITIVE), validation.validations().stream()
+        .filter(item -> item.field().endsWith("height")).findFirst().orElseThrow().messages());
+  }
+
+  private static String amendment(String boxId, String added, String removed) {
+    return """
+        {"order_id": 1, "boxes": [{"box_id": "%s", "products": [%s]}], "added": [%s], "removed": [%s]}
+        """.formatted(boxId, PS5, added, removed);
+  }
+
+  @Test
+  @DisplayName("Should repair an amended order into its previous box")
+  void amendPackaging_whenAmendmentIsValid_shouldAnswerRepairedOrder() throws Exception {
+    mockMvc.perform(post("/api/v1/packaging/optimize/amend").contentType(MediaType.APPLICATION_JSON)
+            .content(amendment("Box 1",
+                "{\"product_id\": \"Fifa 24\", \"dimension\": {\"height\": 10, \"width\": 30, \"length\": 10}}", "")))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.order_id").value(1))
+        .andExpect(jsonPath("$.boxes[0].box_id").value("Box 1"))
+        .andExpect(jsonPath("$.boxes[0].products", containsInAnyOrder("PS5", "Fifa 24")));
+  }
+
+  @Test
+  @DisplayName("Should answer 400 with the field of an unknown previous box type")
+  void amendPackaging_whenBoxIdIsUnknown_shouldAnswerBadRequest() throws Exception {
+    mockMvc.perform(post("/api/v1/packaging/optimize/amend").contentType(MediaType.APPLICATION_JSON)
+            .content(amendment("Box 9", "", "")))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.validations[0].field").value("boxes[0].boxId"))
+        .andExpect(jsonPath("$.validations[0].messages[0]").value("Box type Box 9 is not available"));
+  }
+
+  @Test
+  @DisplayName("Should answer 400 when a removed product is not in the previous packing")
+  void amendPackaging_whenRemovedIdIsUnknown_shouldAnswerBadRequest() throws Exception {
+    mockMvc.perform(post("/api/v1/packaging/optimize/amend").contentType(MediaType.APPLICATION_JSON)
+            .content(amendment("Box 1", "", "\"PS5\", \"Xbox\"")))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.validations[0].field").value("removed"))
+        .andExpect(jsonPath("$.validations[0].messages[0]").value("Product Xbox is not in the previous packing"));
+  }
+
+  @Test
+  @DisplayName("Should answer 400 for an invalid product nested in the previous boxes or the added products")
+  void amendPackaging_whenNestedProductIsInvalid_shouldAnswerBadRequest() throws Exception {
+    mockMvc.perform(post("/api/v1/packaging/optimize/amend").contentType(MediaType.APPLICATION_JSON)
+            .content(amendment("Box 1",
+                "{\"product_id\": \"Fifa 24\", \"dimension\": {\"height\": 0, \"width\": 30, \"length\": 10}}", "")
+                .replace("\"product_id\": \"PS5\", ", "")))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.validations[*].field",
+            containsInAnyOrder("boxes[0].products[0].productId", "added[0].dimension.height")))
+        .andExpect(jsonPath("$.validations[?(@.field == 'added[0].dimension.height')].messages[0]")
+            .value("Product height must be a positive number"));
+  }
+}
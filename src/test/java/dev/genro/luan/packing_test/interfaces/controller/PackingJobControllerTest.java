@@ -0,0 +1,114 @@
+package dev.genro.luan.packing_test.interfaces.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import dev.genro.luan.packing_test.domain.model.BoxType;
+import dev.genro.luan.packing_test.domain.model.Dimension;
+import dev.genro.luan.packing_test.domain.service.PackagingServiceImpl;
+import dev.genro.luan.packing_test.domain.service.PackingJobService;
+import dev.genro.luan.packing_test.domain.service.PackingJobStore;
+import dev.genro.luan.packing_test.exception.GlobalExceptionHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class PackingJobControllerTest {
+
+  private static final String REQUEST = """
+      {"orders": [{"order_id": 1, "products": [
+        {"product_id": "PS5", "dimension": {"height": 40, "width": 10, "length": 25}}
+      ]}]}
+      """;
+
+  private ThreadPoolExecutor jobExecutor;
+  private CountDownLatch release;
+  private MockMvc mockMvc;
+
+  @BeforeEach
+  void setUp() throws InterruptedException {
+    jobExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1),
+        new ThreadPoolExecutor.AbortPolicy());
+    PackingJobService jobService = new PackingJobService(
+        new PackagingServiceImpl(List.of(new BoxType("Box 1", new Dimension(30, 40, 80)))), jobExecutor,
+        new PackingJobStore(60_000, 100));
+    mockMvc = MockMvcBuilders.standaloneSetup(new PackingJobController(jobService))
+        .setControllerAdvice(new GlobalExceptionHandler())
+        .build();
+
+    // keeps the only worker busy, so submitted jobs stay queued
+    CountDownLatch started = new CountDownLatch(1);
+    release = new CountDownLatch(1);
+    jobExecutor.execute(() -> {
+      started.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    started.await();
+  }
+
+  @AfterEach
+  void tearDown() {
+    release.countDown();
+    jobExecutor.shutdownNow();
+  }
+
+  @Test
+  @DisplayName("Should accept a job with its URL in the Location header, then serve it from there")
+  void submitJob_whenQueueHasRoom_shouldAnswerAcceptedWithLocation() throws Exception {
+    MvcResult result = mockMvc.perform(post("/api/v1/packaging/jobs")
+            .contentType(MediaType.APPLICATION_JSON).content(REQUEST))
+        .andExpect(status().isAccepted())
+        .andExpect(jsonPath("$.status").value("queued"))
+        .andExpect(jsonPath("$.total_orders").value(1))
+        .andReturn();
+    String location = result.getResponse().getHeader(HttpHeaders.LOCATION);
+    String jobId = JsonPath.read(result.getResponse().getContentAsString(), "$.job_id");
+
+    assertEquals("http://localhost/api/v1/packaging/jobs/" + jobId, location);
+    mockMvc.perform(get(location))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.job_id").value(jobId))
+        .andExpect(jsonPath("$.packed_orders").value(0));
+  }
+
+  @Test
+  @DisplayName("Should answer 429 with a Retry-After header when the job queue is full")
+  void submitJob_whenQueueIsFull_shouldAnswerTooManyRequests() throws Exception {
+    mockMvc.perform(post("/api/v1/packaging/jobs").contentType(MediaType.APPLICATION_JSON).content(REQUEST))
+        .andExpect(status().isAccepted());
+
+    mockMvc.perform(post("/api/v1/packaging/jobs").contentType(MediaType.APPLICATION_JSON).content(REQUEST))
+        .andExpect(status().isTooManyRequests())
+        .andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+        .andExpect(jsonPath("$.status").value(429));
+  }
+
+  @Test
+  @DisplayName("Should answer 404 for a job that does not exist")
+  void getJob_whenJobIsUnknown_shouldAnswerNotFound() throws Exception {
+    mockMvc.perform(get("/api/v1/packaging/jobs/unknown"))
+        .andExpect(status().isNotFound())
+        .andExpect(jsonPath("$.status").value(404));
+    mockMvc.perform(get("/api/v1/packaging/jobs/unknown/result"))
+        .andExpect(status().isNotFound());
+  }
+}
@@ -0,0 +1,87 @@
+package dev.genro.luan.packing_test.interfaces.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import dev.genro.luan.packing_test.configuration.BinaryFormatConfiguration;
+import dev.genro.luan.packing_test.domain.model.BoxType;
+import dev.genro.luan.packing_test.domain.model.Dimension;
+import dev.genro.luan.packing_test.domain.service.PackagingServiceImpl;
+import dev.genro.luan.packing_test.exception.GlobalExceptionHandler;
+import dev.genro.luan.packing_test.interfaces.dto.PackageOrderRequest;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class RequestDeserializationMetricsTest {
+
+  private static final String REQUEST = """
+      {"orders": [{"order_id": 1, "products": [
+        {"product_id": "PS5", "dimension": {"height": 40, "width": 10, "length": 25}}
+      ]}]}
+      """;
+
+  private SimpleMeterRegistry registry;
+  private MockMvc mockMvc;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+    Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+        .deserializerByType(PackageOrderRequest.class, new PackageOrderRequestDeserializer());
+    ObjectMapper objectMapper = builder.build();
+    PackagingController controller = new PackagingController(
+        new PackagingServiceImpl(List.of(new BoxType("Box 1", new Dimension(30, 40, 80)))), objectMapper,
+        Validation.buildDefaultValidatorFactory().getValidator());
+    mockMvc = MockMvcBuilders.standaloneSetup(controller)
+        .setControllerAdvice(new GlobalExceptionHandler(), new RequestDeserializationMetrics(registry))
+        .setMessageConverters(new MappingJackson2HttpMessageConverter(objectMapper),
+            new BinaryFormatConfiguration().smileHttpMessageConverter(builder))
+        .build();
+  }
+
+  private Timer timer(String format) {
+    return registry.get("http.request.deserialization").tag("format", format)
+        .tag("type", PackageOrderRequest.class.getSimpleName()).timer();
+  }
+
+  @Test
+  @DisplayName("Should time every request body read into one timer per format and body type")
+  void afterBodyRead_whenBodiesAreRead_shouldRecordPerFormat() throws Exception {
+    byte[] smile = new SmileMapper().writeValueAsBytes(new ObjectMapper().readTree(REQUEST));
+
+    for (int i = 0; i < 2; i++) {
+      mockMvc.perform(post("/api/v1/packaging/optimize").contentType(MediaType.APPLICATION_JSON).content(REQUEST))
+          .andExpect(status().isOk());
+    }
+    mockMvc.perform(post("/api/v1/packaging/optimize")
+            .contentType(BinaryFormatConfiguration.APPLICATION_SMILE_VALUE).content(smile))
+        .andExpect(status().isOk());
+
+    assertEquals(2, timer("json").count());
+    assertEquals(1, timer("x-jackson-smile").count());
+    assertEquals(2, registry.find("http.request.deserialization").timers().size());
+  }
+
+  @Test
+  @DisplayName("Should not time a body that fails to parse")
+  void afterBodyRead_whenBodyIsUnreadable_shouldNotRecord() throws Exception {
+    mockMvc.perform(post("/api/v1/packaging/optimize").contentType(MediaType.APPLICATION_JSON).content("{\"orders\": "))
+        .andExpect(status().isBadRequest());
+
+    assertEquals(0, registry.find("http.request.deserialization").timers().size());
+  }
+}